@@ -0,0 +1,63 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.checked.CheckedProject;
+import com.example.teamcity.api.spec.Specifications;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dhost=127.0.0.1:18111", "-DsuperUserToken=benchmark", "-DhttpLogging=none",
+        "-Dsun.net.httpserver.nodelay=true"})
+@State(Scope.Benchmark)
+public class CheckedProjectBenchmark {
+    private HttpServer server;
+    private CheckedProject projectRequest;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 18111), 0);
+        server.createContext("/app/rest/projects", exchange -> {
+            var body = exchange.getRequestBody().readAllBytes();
+            var response = body.length > 0 ? body : "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        projectRequest = new CheckedProject(Specifications.getSpec().superUserSpec());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public Project create() {
+        return projectRequest.create(TestDataGenerator.generate().getProject());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.models.NewProjectDescription;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.CheckedRequests;
+import com.example.teamcity.api.requests.unchecked.UncheckedProject;
+import com.example.teamcity.api.spec.Specifications;
+import com.example.teamcity.api.stub.TeamCityStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 500-project page from the stub server, uncompressed vs gzipped in both directions. Over loopback this mostly
+ * shows the CPU cost of compression; the payload sizes printed at setup show what it saves on a real network.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-DhttpLogging=none", "-DlatencyMetrics=false"})
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+    private static final int PROJECTS = 500;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private TeamCityStubServer server;
+    private UncheckedProject projectRequest;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        boolean gzip = encoding.equals("gzip");
+        // every @Param value runs in its own fork, so this happens before any spec is built
+        Config.override("httpCompression", String.valueOf(gzip));
+        Config.override("gzipRequestThreshold", "1024");
+        Config.override("stubGzipThreshold", gzip ? "1024" : String.valueOf(Integer.MAX_VALUE));
+        server = TeamCityStubServer.startForConfig();
+
+        var checked = new CheckedRequests(Specifications.getSpec().superUserSpec());
+        for (int i = 0; i < PROJECTS; i++) {
+            checked.getProjectRequest().create(NewProjectDescription.builder()
+                    .parentProject(Project.builder().locator("_Root").build())
+                    .name("benchmark_" + i)
+                    .id("benchmark_" + i)
+                    .copyAllAssociatedSettings(true)
+                    .build());
+        }
+        projectRequest = new UncheckedProject(Specifications.getSpec().superUserSpec());
+        var page = projectRequest.list("count:" + PROJECTS);
+        System.out.printf("%n%s: %s bytes on the wire, %d bytes of JSON%n",
+                encoding, page.getHeader("Content-Length"), page.asByteArray().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Benchmark
+    public byte[] listPage() {
+        return projectRequest.list("count:" + PROJECTS).asByteArray();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.spec.ModelMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelSerializationBenchmark {
+    private static final byte[] BUILD_TYPE_JSON = ("{\"id\":\"test_buildType\",\"name\":\"test_name\",\"projectId\":\"test_project\","
+            + "\"project\":{\"id\":\"test_project\",\"name\":\"test_project\",\"parentProjectId\":\"_Root\"},"
+            + "\"href\":\"/app/rest/buildTypes/id:test_buildType\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final User user = TestDataGenerator.generate().getUser();
+
+    // What RestAssured's DefaultJackson2ObjectMapperFactory does for every body(obj) and extract().as(...)
+    @Benchmark
+    public BuildType defaultFactoryRoundTrip() throws Exception {
+        new ObjectMapper().findAndRegisterModules().writeValueAsString(user);
+        return new ObjectMapper().findAndRegisterModules().readValue(BUILD_TYPE_JSON, BuildType.class);
+    }
+
+    @Benchmark
+    public BuildType modelMapperRoundTrip() throws Exception {
+        var modelMapper = ModelMapper.getModelMapper();
+        modelMapper.writer(User.class).writeValueAsString(user);
+        return modelMapper.reader(BuildType.class).readValue(BUILD_TYPE_JSON);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.generators.RandomData;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Run with -t to compare under contention, e.g. -Djmh.args="RandomDataBenchmark -t 8"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RandomDataBenchmark {
+
+    @Benchmark
+    public String randomString() {
+        return RandomData.getString();
+    }
+
+    // What RandomData.getString() did before: one shared Random behind RandomStringUtils
+    @Benchmark
+    public String randomAlphabetic() {
+        return "test_" + RandomStringUtils.randomAlphabetic(10);
+    }
+}
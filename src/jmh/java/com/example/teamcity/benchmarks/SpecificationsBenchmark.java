@@ -0,0 +1,46 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.spec.Specifications;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dhost=127.0.0.1:8111", "-DsuperUserToken=benchmark", "-DhttpLogging=none"})
+@State(Scope.Thread)
+public class SpecificationsBenchmark {
+    private final User user = User.builder().username("benchmark").password("benchmark").build();
+    private long counter;
+
+    @Benchmark
+    public RequestSpecification authSpecCached() {
+        return Specifications.getSpec().authSpec(user);
+    }
+
+    @Benchmark
+    public RequestSpecification authSpecBuilt() {
+        // a username never seen before always misses the cache and builds the spec from scratch
+        return Specifications.getSpec().authSpec(User.builder()
+                .username("benchmark" + counter++)
+                .password("benchmark")
+                .build());
+    }
+
+    @Benchmark
+    public RequestSpecification superUserSpec() {
+        return Specifications.getSpec().superUserSpec();
+    }
+}
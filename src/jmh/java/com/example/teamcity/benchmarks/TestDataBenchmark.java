@@ -0,0 +1,38 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.generators.TestData;
+import com.example.teamcity.api.generators.TestDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestDataBenchmark {
+
+    // What an eager generator used to cost: every part materialized
+    @Benchmark
+    public TestData generateAllParts() {
+        var testData = TestDataGenerator.generate();
+        testData.getUser();
+        testData.getRunBuild();
+        return testData;
+    }
+
+    @Benchmark
+    public TestData generateProjectOnly() {
+        var testData = TestDataGenerator.generate(EnumSet.of(TestData.Part.PROJECT));
+        testData.getProject();
+        return testData;
+    }
+}
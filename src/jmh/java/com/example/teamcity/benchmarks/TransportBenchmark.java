@@ -0,0 +1,67 @@
+package com.example.teamcity.benchmarks;
+
+import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.checked.CheckedProject;
+import com.example.teamcity.api.requests.http.HttpRequests;
+import com.example.teamcity.api.spec.Specifications;
+import com.example.teamcity.api.stub.TeamCityStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same project requests through RestAssured ({@link CheckedProject}) and through the JDK client
+ * ({@link HttpRequests}) against the in-process stub server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-DhttpLogging=none", "-DlatencyMetrics=false"})
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+    @Param({"restassured", "http_client"})
+    public String transport;
+
+    private TeamCityStubServer server;
+    private CrudInterface projectRequest;
+    private String projectId;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        server = TeamCityStubServer.startForConfig();
+        projectRequest = transport.equals("http_client")
+                ? HttpRequests.withSuperUser().getProjectRequest()
+                : new CheckedProject(Specifications.getSpec().superUserSpec());
+        projectId = ((Project) projectRequest.create(TestDataGenerator.generate().getProject())).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Benchmark
+    public Object get() {
+        return projectRequest.get(projectId);
+    }
+
+    @Benchmark
+    public Object create() {
+        return projectRequest.create(TestDataGenerator.generate().getProject());
+    }
+}
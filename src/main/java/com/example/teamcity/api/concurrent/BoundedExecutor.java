@@ -0,0 +1,75 @@
+package com.example.teamcity.api.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking tasks with at most {@code maxConcurrency} of them in flight.
+ * Uses a virtual thread per task when the JVM has them (21+), otherwise a fixed pool of daemon threads.
+ */
+public class BoundedExecutor {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public BoundedExecutor(String name, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, got " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        var virtualExecutor = newVirtualThreadPerTaskExecutor();
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(maxConcurrency);
+        } else {
+            var counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+                var thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.permits = null;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (permits == null) {
+                return task.get();
+            }
+            permits.acquireUninterruptibly();
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
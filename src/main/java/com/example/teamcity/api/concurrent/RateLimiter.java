@@ -0,0 +1,35 @@
+package com.example.teamcity.api.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spaces calls evenly at {@code permitsPerSecond}: each {@link #acquire()} reserves the next free time slot
+ * with a CAS and sleeps until it. Idle time is not saved up, so there are no bursts after a pause.
+ */
+public class RateLimiter {
+    private final long intervalNanos;
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive, got " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (1e9 / permitsPerSecond);
+    }
+
+    public void acquire() {
+        long slot;
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextSlot.get();
+            slot = next - now > 0 ? next : now;
+            if (nextSlot.compareAndSet(next, slot + intervalNanos)) {
+                break;
+            }
+        }
+        for (long wait = slot - System.nanoTime(); wait > 0; wait = slot - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
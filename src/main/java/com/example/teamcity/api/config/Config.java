@@ -2,39 +2,170 @@ package com.example.teamcity.api.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+/**
+ * Immutable configuration snapshot: config.properties, overridden by TEAMCITY_* environment variables (__ for a dot:
+ * TEAMCITY_LOAD__RATE is load.rate), then by system properties. {@link #override(String, String)} swaps in a new one.
+ */
 public class Config {
     private final static String CONFIG_PROPERTIES = "config.properties";
+    private final static String ENV_PREFIX = "TEAMCITY_";
 
-    private static Config config;
-    private Properties properties;
-    private Config() {
-        properties = new Properties();
-        loadProperties(CONFIG_PROPERTIES);
+    private static volatile Config config = new Config(loadLayers());
+    private final Map<String, String> properties;
+    private final Map<String, Optional<?>> parsedProperties = new ConcurrentHashMap<>();
+
+    private Config(Map<String, String> properties) {
+        this.properties = Map.copyOf(properties);
+    }
+
+    private static Map<String, String> loadLayers() {
+        var merged = new HashMap<String, String>();
+        var fileProperties = loadProperties(CONFIG_PROPERTIES);
+        fileProperties.stringPropertyNames().forEach(key -> merged.put(key, fileProperties.getProperty(key)));
+        System.getenv().forEach((name, value) -> {
+            if (name.startsWith(ENV_PREFIX)) {
+                merged.put(toPropertyKey(name.substring(ENV_PREFIX.length())), value);
+            }
+        });
+        var systemProperties = System.getProperties();
+        systemProperties.stringPropertyNames().forEach(key -> merged.put(key, systemProperties.getProperty(key)));
+        return merged;
     }
 
     public static Config getConfig() {
-        if (config == null){
-            config = new Config();
-        }
         return config;
     }
 
-    public void loadProperties(String fileName) {
+    private static Properties loadProperties(String fileName) {
+        var properties = new Properties();
         try(InputStream stream = Config.class.getClassLoader().getResourceAsStream(fileName)) {
             if (stream == null) {
                 System.err.println("File not found " + fileName);
+                return properties;
             }
             properties.load(stream);
         } catch (IOException e) {
             System.err.println("Error during file reading " + fileName);
             throw new RuntimeException(e);
         }
+        return properties;
+    }
+
+    // For infrastructure started by the tests themselves, e.g. pointing host at a local stub server; null removes it
+    public static synchronized void override(String key, String value) {
+        var merged = new HashMap<>(config.properties);
+        if (value == null) {
+            merged.remove(key);
+        } else {
+            merged.put(key, value);
+        }
+        config = new Config(merged);
     }
 
     public static String getProperty(String key) {
-        return getConfig().properties.getProperty(key);
+        return getConfig().properties.get(key);
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        return getConfig().properties.getOrDefault(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return getConfig().parsed(key, Integer::parseInt).orElse(defaultValue);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        return getConfig().parsed(key, Double::parseDouble).orElse(defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return getConfig().parsed(key, Config::parseBoolean).orElse(defaultValue);
+    }
+
+    public static Duration getDuration(String key, Duration defaultValue) {
+        return getConfig().parsed(key, Config::parseDuration).orElse(defaultValue);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> parsed(String key, Function<String, T> parser) {
+        var parsed = parsedProperties.get(key);
+        if (parsed == null) {
+            parsed = parsedProperties.computeIfAbsent(key,
+                    k -> Optional.ofNullable(properties.get(k)).map(String::trim).map(value -> parse(k, value, parser)));
+        }
+        return (Optional<T>) parsed;
+    }
+
+    private static <T> T parse(String key, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value of config property '" + key + "': '" + value + "'", e);
+        }
+    }
+
+    // Unlike Boolean.parseBoolean, a typo such as "ture" is an error rather than false
+    static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Expected true or false");
+    }
+
+    // Accepts ISO-8601 (PT5S), plain milliseconds (5000) or a number with ms/s/m/h suffix (5s)
+    static Duration parseDuration(String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Duration is empty");
+        }
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        var amount = value.substring(0, value.length() - 1);
+        switch (value.charAt(value.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(Long.parseLong(amount));
+            case 'm':
+                return Duration.ofMinutes(Long.parseLong(amount));
+            case 'h':
+                return Duration.ofHours(Long.parseLong(amount));
+            default:
+                return Duration.ofMillis(Long.parseLong(value));
+        }
+    }
+
+    // SUPER_USER_TOKEN -> superUserToken; a double underscore is a dot: LOAD__MAX_IN_FLIGHT -> load.maxInFlight
+    private static String toPropertyKey(String envName) {
+        var key = new StringBuilder();
+        boolean upperNext = false;
+        var name = envName.toLowerCase();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' && i + 1 < name.length() && name.charAt(i + 1) == '_') {
+                key.append('.');
+                upperNext = false;
+                i++;
+            } else if (c == '_') {
+                upperNext = true;
+            } else {
+                key.append(upperNext ? Character.toUpperCase(c) : c);
+                upperNext = false;
+            }
+        }
+        return key.toString();
     }
 
 }
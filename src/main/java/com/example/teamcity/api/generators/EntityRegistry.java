@@ -0,0 +1,120 @@
+package com.example.teamcity.api.generators;
+
+import com.example.teamcity.api.requests.unchecked.UncheckedBuildConfig;
+import com.example.teamcity.api.requests.unchecked.UncheckedProject;
+import com.example.teamcity.api.requests.unchecked.UncheckedRunBuild;
+import com.example.teamcity.api.requests.unchecked.UncheckedUser;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Everything the request classes created on the current thread, by kind, until {@link TestDataStorage#delete()}
+ * tears it down. Kinds are declared in teardown order.
+ */
+public class EntityRegistry {
+    private static final EntityRegistry entityRegistry = new EntityRegistry();
+
+    // synchronized: tasks bound with withCurrentThread register from other threads
+    private final ThreadLocal<Map<Kind, Set<String>>> created = ThreadLocal.withInitial(
+            () -> Collections.synchronizedMap(new EnumMap<>(Kind.class)));
+    private final ThreadLocal<Boolean> untracked = ThreadLocal.withInitial(() -> false);
+
+    private EntityRegistry() {}
+
+    public static EntityRegistry getRegistry() {
+        return entityRegistry;
+    }
+
+    public enum Kind {
+        // leaves the queue, or is canceled once it has started, so it does not run on until its build type goes
+        BUILD((spec, id) -> {
+            var dequeued = new UncheckedRunBuild(spec).delete(id);
+            return dequeued.statusCode() == HttpStatus.SC_NOT_FOUND ? new UncheckedRunBuild(spec).cancel(id) : dequeued;
+        }),
+        BUILD_TYPE((spec, id) -> new UncheckedBuildConfig(spec).delete(id)),
+        PROJECT((spec, id) -> new UncheckedProject(spec).delete(id)),
+        USER((spec, username) -> new UncheckedUser(spec).delete(username));
+
+        private final BiFunction<RequestSpecification, String, Response> delete;
+
+        Kind(BiFunction<RequestSpecification, String, Response> delete) {
+            this.delete = delete;
+        }
+
+        public Response delete(RequestSpecification spec, String id) {
+            return delete.apply(spec, id);
+        }
+    }
+
+    public void register(Kind kind, String id) {
+        if (id != null && !untracked.get()) {
+            add(created.get(), kind, id);
+        }
+    }
+
+    // Registers what a create request answered 200 for; idPath is the id field of the response body
+    public void register(Kind kind, Response response, String idPath) {
+        if (response.statusCode() == HttpStatus.SC_OK && !untracked.get()) {
+            Object id = response.path(idPath);
+            if (id != null) {
+                register(kind, id.toString());
+            }
+        }
+    }
+
+    // For entities whose lifetime is managed elsewhere, e.g. everything LoadRunner creates in its scratch project
+    public <T> T untracked(Supplier<T> action) {
+        if (untracked.get()) {
+            return action.get();
+        }
+        untracked.set(true);
+        try {
+            return action.get();
+        } finally {
+            untracked.remove();
+        }
+    }
+
+    // For tasks handed to another thread: what they create is torn down with the submitting thread's entities
+    public <T, R> Function<T, R> withCurrentThread(Function<T, R> task) {
+        var owner = created.get();
+        boolean ownerUntracked = untracked.get();
+        return value -> {
+            var previous = created.get();
+            boolean previousUntracked = untracked.get();
+            created.set(owner);
+            untracked.set(ownerUntracked);
+            try {
+                return task.apply(value);
+            } finally {
+                created.set(previous);
+                untracked.set(previousUntracked);
+            }
+        };
+    }
+
+    public <T> Supplier<T> withCurrentThread(Supplier<T> task) {
+        Function<Void, T> bound = withCurrentThread(ignored -> task.get());
+        return () -> bound.apply(null);
+    }
+
+    Map<Kind, Set<String>> drain() {
+        var drained = created.get();
+        created.remove();
+        return drained;
+    }
+
+    static void add(Map<Kind, Set<String>> entities, Kind kind, String id) {
+        entities.computeIfAbsent(kind, k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(id);
+    }
+}
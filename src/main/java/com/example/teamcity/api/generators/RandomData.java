@@ -1,15 +1,67 @@
 package com.example.teamcity.api.generators;
 
-import org.apache.commons.lang3.RandomStringUtils;
+import com.example.teamcity.api.config.Config;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unique, TeamCity-valid ids and names: {@code test_}, a per-JVM prefix, random letters and a per-JVM counter.
+ * {@code randomSeed} seeds only the letters; the prefix stays unique per run, so seeded runs never share ids.
+ */
 public class RandomData {
-    private static final int LENGTH = 10;
     private static final int CRITICAL_LENGTH = 226;
+    private static final int RANDOM_LETTERS = 4;
+    private static final String PREFIX = "test_";
+    private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private static final String SEED = Config.getProperty("randomSeed");
+    private static final String JVM_PREFIX = jvmPrefix();
+    private static final AtomicLong counter = new AtomicLong();
+    private static final AtomicInteger threadOrdinal = new AtomicInteger();
+    private static final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(() -> SEED == null
+            ? new SplittableRandom()
+            : new SplittableRandom(Long.parseLong(SEED) * 31 + threadOrdinal.incrementAndGet()));
 
     public static String getString() {
-        return "test_" + RandomStringUtils.randomAlphabetic(LENGTH);
+        var count = Long.toString(counter.incrementAndGet(), 36);
+        var value = new StringBuilder(PREFIX.length() + JVM_PREFIX.length() + RANDOM_LETTERS + count.length())
+                .append(PREFIX)
+                .append(JVM_PREFIX);
+        appendLetters(value, RANDOM_LETTERS);
+        return value.append(count).toString();
+    }
+
+    // Common to every value this JVM generates, e.g. to sweep up only this run's leftovers
+    public static String getRunPrefix() {
+        return PREFIX + JVM_PREFIX;
     }
+
     public static String getCriticalLengthString() {
-        return "test_" + RandomStringUtils.randomAlphabetic(CRITICAL_LENGTH);
+        var value = new StringBuilder(PREFIX.length() + CRITICAL_LENGTH).append(PREFIX);
+        appendLetters(value, CRITICAL_LENGTH);
+        return value.toString();
+    }
+
+    private static void appendLetters(StringBuilder value, int count) {
+        var threadRandom = random.get();
+        for (int i = 0; i < count; i++) {
+            value.append(LETTERS[threadRandom.nextInt(LETTERS.length)]);
+        }
+    }
+
+    // 5 base-36 digits of pid + 8 of start time: fixed width, so no two JVMs can produce the same prefix + counter
+    private static String jvmPrefix() {
+        var process = ProcessHandle.current();
+        long startMillis = process.info().startInstant().map(instant -> instant.toEpochMilli())
+                .orElse(System.currentTimeMillis());
+        return fixedWidth(process.pid(), 5) + fixedWidth(startMillis, 8);
+    }
+
+    private static String fixedWidth(long value, int width) {
+        long modulus = (long) Math.pow(36, width);
+        var digits = Long.toString(Math.floorMod(value, modulus), 36);
+        return "0".repeat(width - digits.length()) + digits;
     }
 }
@@ -0,0 +1,29 @@
+package com.example.teamcity.api.generators;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class SweepReport {
+    String prefix;
+    int projects;
+    int buildTypes;
+    int users;
+    // 404 on delete: removed concurrently, e.g. by another run's sweep
+    int alreadyGone;
+    int failed;
+    Duration duration;
+
+    public int getRemoved() {
+        return projects + buildTypes + users;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = Math.max(duration.toNanos(), 1) / 1e9;
+        return String.format("Sweep of '%s' removed %d projects, %d build types, %d users "
+                        + "(%d already gone, %d failed) in %d ms, %.1f/s",
+                prefix, projects, buildTypes, users, alreadyGone, failed, duration.toMillis(), getRemoved() / seconds);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.teamcity.api.generators;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class TeardownReport {
+    int removed;
+    int failed;
+    Duration duration;
+
+    @Override
+    public String toString() {
+        return String.format("Teardown removed %d entities (%d failed) in %d ms", removed, failed, duration.toMillis());
+    }
+}
@@ -4,25 +4,80 @@ import com.example.teamcity.api.models.BuildType;
 import com.example.teamcity.api.models.NewProjectDescription;
 import com.example.teamcity.api.models.RunBuild;
 import com.example.teamcity.api.models.User;
-import com.example.teamcity.api.requests.unchecked.UncheckedProject;
-import com.example.teamcity.api.requests.unchecked.UncheckedUser;
-import com.example.teamcity.api.spec.Specifications;
-import lombok.Builder;
-import lombok.Data;
-
-@Builder
-@Data
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The entities of one test, each generated on first access; parts outside the set it was generated with are not
+ * available.
+ */
+@Setter
+@ToString(doNotUseGetters = true)
 public class TestData {
+    public enum Part {
+        USER, PROJECT, BUILD_TYPE, RUN_BUILD
+    }
+
+    @Setter(lombok.AccessLevel.NONE)
+    private final Set<Part> parts;
     private User user;
     private NewProjectDescription project;
     private BuildType buildType;
     private RunBuild runBuild;
 
+    TestData(Set<Part> parts) {
+        this.parts = EnumSet.copyOf(parts);
+    }
+
+    public User getUser() {
+        if (user == null) {
+            require(Part.USER);
+            user = TestDataGenerator.generateUser();
+        }
+        return user;
+    }
+
+    public NewProjectDescription getProject() {
+        if (project == null) {
+            require(Part.PROJECT);
+            project = TestDataGenerator.generateProject();
+        }
+        return project;
+    }
+
+    public BuildType getBuildType() {
+        if (buildType == null) {
+            require(Part.BUILD_TYPE);
+            buildType = TestDataGenerator.generateBuildType(getProject());
+        }
+        return buildType;
+    }
 
-    public void delete() {
-        var spec = Specifications.getSpec().authSpec(user);
+    public RunBuild getRunBuild() {
+        if (runBuild == null) {
+            require(Part.RUN_BUILD);
+            runBuild = TestDataGenerator.generateRunBuild(getBuildType());
+        }
+        return runBuild;
+    }
+
+    // Only what has been generated can exist on the server; the build type goes away with its project
+    void addTo(Map<EntityRegistry.Kind, Set<String>> entities) {
+        if (project != null) {
+            EntityRegistry.add(entities, EntityRegistry.Kind.PROJECT, project.getId());
+        }
+        if (user != null) {
+            EntityRegistry.add(entities, EntityRegistry.Kind.USER, user.getUsername());
+        }
+    }
 
-        new UncheckedProject(spec).delete(project.getId());
-        new UncheckedUser(spec).delete(user.getUsername());
+    private void require(Part part) {
+        if (!parts.contains(part)) {
+            throw new IllegalStateException("Test data was generated without " + part + ", only with " + parts);
+        }
     }
 }
@@ -10,11 +10,29 @@ import com.example.teamcity.api.models.RunBuild;
 import com.example.teamcity.api.models.User;
 
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 
 public class TestDataGenerator {
     public static TestData generate() {
-        var user = User.builder()
+        return new TestData(EnumSet.allOf(TestData.Part.class));
+    }
+
+    // Only the given parts (plus the ones they are built on, e.g. PROJECT for BUILD_TYPE) can be accessed
+    public static TestData generate(Set<TestData.Part> parts) {
+        var withDependencies = EnumSet.copyOf(parts);
+        if (withDependencies.contains(TestData.Part.RUN_BUILD)) {
+            withDependencies.add(TestData.Part.BUILD_TYPE);
+        }
+        if (withDependencies.contains(TestData.Part.BUILD_TYPE)) {
+            withDependencies.add(TestData.Part.PROJECT);
+        }
+        return new TestData(withDependencies);
+    }
+
+    static User generateUser() {
+        return User.builder()
                 .username(RandomData.getString())
                 .password(RandomData.getString())
                 .email(RandomData.getString() + "@gmail.com")
@@ -25,7 +43,10 @@ public class TestDataGenerator {
                                 .build()))
                         .build())
                 .build();
-        var project = NewProjectDescription
+    }
+
+    static NewProjectDescription generateProject() {
+        return NewProjectDescription
                 .builder()
                 .parentProject(Project.builder()
                         .locator("_Root")
@@ -34,26 +55,21 @@ public class TestDataGenerator {
                 .id(RandomData.getString())
                 .copyAllAssociatedSettings(true)
                 .build();
+    }
 
-        var buildType = BuildType.builder()
+    static BuildType generateBuildType(NewProjectDescription project) {
+        return BuildType.builder()
                 .id(RandomData.getString())
                 .name(RandomData.getString())
                 .project(project)
                 .build();
+    }
 
-        var buildTypeObject = NewBuildTypeId.builder()
-                .id(buildType.getId())
-                .build();
-
-        var runBuild = RunBuild.builder()
-                .buildType(buildTypeObject)
-                .build();
-
-        return TestData.builder()
-                .user(user)
-                .project(project)
-                .buildType(buildType)
-                .runBuild(runBuild)
+    static RunBuild generateRunBuild(BuildType buildType) {
+        return RunBuild.builder()
+                .buildType(NewBuildTypeId.builder()
+                        .id(buildType.getId())
+                        .build())
                 .build();
     }
 
@@ -0,0 +1,163 @@
+package com.example.teamcity.api.generators;
+
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.enums.Role;
+import com.example.teamcity.api.requests.http.HttpRequests;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pre-provisioned users with a role and a project each, for the profiles in {@code testDataPoolProfiles}.
+ * A leased fixture is deleted by the leasing test's teardown unless it is handed back with {@link #giveBack(TestData)}.
+ */
+public class TestDataPool {
+    private static final TestDataPool testDataPool = new TestDataPool();
+
+    private final BoundedExecutor executor = new BoundedExecutor("test-data-pool",
+            Config.getInt("testDataPoolParallelism", 4));
+    private final Map<Profile, Queue<TestData>> ready = new ConcurrentHashMap<>();
+    private final Map<TestData, Profile> leased = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Set<Profile> replenished = ConcurrentHashMap.newKeySet();
+    private final List<CompletableFuture<Void>> provisioning = new ArrayList<>();
+    private final Map<Profile, Throwable> backgroundFailures = new ConcurrentHashMap<>();
+
+    private TestDataPool() {}
+
+    public static TestDataPool getPool() {
+        return testDataPool;
+    }
+
+    public enum Scope {
+        GLOBAL, PROJECT
+    }
+
+    public synchronized void warmUp() {
+        int size = Config.getInt("testDataPoolSize", 0);
+        for (var profile : configuredProfiles()) {
+            replenished.add(profile);
+            for (int i = 0; i < size; i++) {
+                provisionInBackground(profile);
+            }
+        }
+    }
+
+    public TestData lease(Role role, Scope scope) {
+        var profile = new Profile(role, scope);
+        var failure = backgroundFailures.remove(profile);
+        if (failure != null) {
+            throw new IllegalStateException("Provisioning a " + profile + " fixture in the background failed", failure);
+        }
+        var testData = queue(profile).poll();
+        if (testData == null) {
+            testData = provision(profile);
+        }
+        if (replenished.contains(profile)) {
+            provisionInBackground(profile);
+        }
+        leased.put(testData, profile);
+        return TestDataStorage.getStorage().addTestData(testData);
+    }
+
+    // Only hand back fixtures whose server-side state the test has not changed
+    public void giveBack(TestData testData) {
+        var profile = leased.remove(testData);
+        if (profile == null) {
+            throw new IllegalArgumentException("Test data was not leased from the pool: " + testData);
+        }
+        TestDataStorage.getStorage().remove(testData);
+        queue(profile).add(testData);
+    }
+
+    public synchronized TeardownReport drain() {
+        replenished.clear();
+        leased.clear();
+        backgroundFailures.clear();
+        CompletableFuture.allOf(provisioning.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .join();
+        provisioning.clear();
+        ready.values().forEach(queue -> {
+            TestData testData;
+            while ((testData = queue.poll()) != null) {
+                TestDataStorage.getStorage().addTestData(testData);
+            }
+        });
+        return TestDataStorage.getStorage().delete();
+    }
+
+    // Called by TestDataStorage once the leasing test's data has been torn down
+    void forget(Collection<TestData> deleted) {
+        deleted.forEach(leased::remove);
+    }
+
+    private synchronized void provisionInBackground(Profile profile) {
+        provisioning.removeIf(CompletableFuture::isDone);
+        provisioning.add(executor.run(() -> queue(profile).add(provision(profile)))
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        System.err.println("Provisioning a " + profile + " fixture failed: " + cause);
+                        backgroundFailures.put(profile, cause);
+                    }
+                }));
+    }
+
+    private TestData provision(Profile profile) {
+        var testData = TestDataGenerator.generate();
+        var scope = profile.getScope() == Scope.GLOBAL ? "g" : "p:" + testData.getProject().getId();
+        testData.getUser().setRoles(TestDataGenerator.generateRoles(profile.getRole(), scope));
+
+        // not registered: the fixture is deleted through its TestData once leased, or by drain()
+        var superUser = HttpRequests.withSuperUser();
+        return EntityRegistry.getRegistry().untracked(() -> {
+            superUser.getProjectRequest().create(testData.getProject());
+            try {
+                superUser.getUserRequest().create(testData.getUser());
+            } catch (RuntimeException e) {
+                // nothing else knows about the project yet
+                try {
+                    superUser.getProjectRequest().delete(testData.getProject().getId());
+                } catch (RuntimeException deleteFailure) {
+                    e.addSuppressed(deleteFailure);
+                }
+                throw e;
+            }
+            return testData;
+        });
+    }
+
+    private Queue<TestData> queue(Profile profile) {
+        return ready.computeIfAbsent(profile, p -> new ConcurrentLinkedQueue<>());
+    }
+
+    private static List<Profile> configuredProfiles() {
+        var profiles = new ArrayList<Profile>();
+        for (var entry : Config.getProperty("testDataPoolProfiles", "").split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            var parts = entry.trim().split(":");
+            profiles.add(new Profile(Role.valueOf(parts[0]), parts[1].equals("g") ? Scope.GLOBAL : Scope.PROJECT));
+        }
+        return profiles;
+    }
+
+    @Value
+    private static class Profile {
+        Role role;
+        Scope scope;
+    }
+}
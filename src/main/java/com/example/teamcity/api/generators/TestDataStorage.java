@@ -1,21 +1,40 @@
 package com.example.teamcity.api.generators;
 
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.spec.Specifications;
+import org.apache.http.HttpStatus;
+
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Test data of the current thread; {@link #delete()} tears it down together with what the requests registered in
+ * the {@link EntityRegistry}. Entries stay in a global registry until deleted, for the leak report.
+ */
 public class TestDataStorage {
+    private static final BoundedExecutor TEARDOWN_EXECUTOR = new BoundedExecutor("teardown",
+            Config.getInt("teardownParallelism", 8));
+
+    private static final TestDataStorage testDataStorage = new TestDataStorage();
+    private static final Set<TestData> liveTestData = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
 
-    private static TestDataStorage testDataStorage;
-    private List<TestData> testDataList;
+    private final ThreadLocal<List<TestData>> testDataList;
 
     private TestDataStorage() {
-        this.testDataList = new ArrayList<>();
+        this.testDataList = ThreadLocal.withInitial(ArrayList::new);
     }
 
     public static TestDataStorage getStorage() {
-        if (testDataStorage == null) {
-            testDataStorage = new TestDataStorage();
-        }
         return testDataStorage;
     }
 
@@ -25,12 +44,65 @@ public class TestDataStorage {
         return testData;
     }
 
+    public TestData addTestData(Set<TestData.Part> parts) {
+        return addTestData(TestDataGenerator.generate(parts));
+    }
+
     public TestData addTestData(TestData testData) {
-        getStorage().testDataList.add(testData);
+        testDataList.get().add(testData);
+        liveTestData.add(testData);
         return testData;
     }
 
-    public void delete() {
-        testDataList.forEach(TestData::delete);
+    public void remove(TestData testData) {
+        testDataList.get().removeIf(stored -> stored == testData);
+        liveTestData.remove(testData);
+    }
+
+    // Deletes level by level in EntityRegistry.Kind order, in parallel within a level
+    public TeardownReport delete() {
+        var drained = testDataList.get();
+        testDataList.remove();
+        var entities = EntityRegistry.getRegistry().drain();
+        drained.forEach(testData -> testData.addTo(entities));
+        TestDataPool.getPool().forget(drained);
+
+        long start = System.nanoTime();
+        var spec = Specifications.getSpec().superUserSpec();
+        var failedIds = new HashSet<String>();
+        int removed = 0;
+        for (var level : entities.entrySet()) {
+            var deletions = new LinkedHashMap<String, CompletableFuture<Integer>>();
+            level.getValue().forEach(id -> deletions.put(id, TEARDOWN_EXECUTOR.submit(
+                    () -> level.getKey().delete(spec, id).getStatusCode())));
+            CompletableFuture.allOf(deletions.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+
+            for (var deletion : deletions.entrySet()) {
+                int statusCode = deletion.getValue().isCompletedExceptionally() ? -1 : deletion.getValue().join();
+                if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_NO_CONTENT) {
+                    removed++;
+                } else if (statusCode != HttpStatus.SC_NOT_FOUND) {
+                    failedIds.add(deletion.getKey());
+                }
+            }
+        }
+        for (var testData : drained) {
+            var own = new EnumMap<EntityRegistry.Kind, Set<String>>(EntityRegistry.Kind.class);
+            testData.addTo(own);
+            if (own.values().stream().flatMap(Set::stream).noneMatch(failedIds::contains)) {
+                liveTestData.remove(testData);
+            }
+        }
+        var report = new TeardownReport(removed, failedIds.size(), Duration.ofNanos(System.nanoTime() - start));
+        System.out.println(report);
+        return report;
+    }
+
+    public static List<TestData> getLeakedTestData() {
+        synchronized (liveTestData) {
+            return new ArrayList<>(liveTestData);
+        }
     }
 }
@@ -0,0 +1,134 @@
+package com.example.teamcity.api.generators;
+
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.concurrent.RateLimiter;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.requests.CheckedRequests;
+import com.example.teamcity.api.requests.UncheckedRequests;
+import com.example.teamcity.api.spec.Specifications;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes every project, build type and user whose id (username for users) starts with {@code sweepPrefix},
+ * e.g. what crashed runs left behind.
+ */
+public class TestDataSweeper {
+    private final CheckedRequests checked;
+    private final UncheckedRequests unchecked;
+
+    public TestDataSweeper(RequestSpecification spec) {
+        this.checked = new CheckedRequests(spec);
+        this.unchecked = new UncheckedRequests(spec);
+    }
+
+    public static TestDataSweeper withSuperUser() {
+        return new TestDataSweeper(Specifications.getSpec().superUserSpec());
+    }
+
+    public SweepReport sweep(String prefix) {
+        long start = System.nanoTime();
+        List<Project> projects;
+        try (var all = checked.getProjectRequest().list(null)) {
+            projects = all.filter(project -> project.getId() != null && project.getId().startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+        Set<String> projectIds = projects.stream().map(Project::getId).collect(Collectors.toSet());
+        var topProjects = projects.stream()
+                .filter(project -> !projectIds.contains(project.getParentProjectId()))
+                .map(Project::getId)
+                .collect(Collectors.toList());
+        List<String> buildTypes;
+        try (var all = checked.getBuildConfigRequest().list(null)) {
+            buildTypes = all.filter(buildType -> buildType.getId() != null && buildType.getId().startsWith(prefix))
+                    .filter(buildType -> !projectIds.contains(projectId(buildType)))
+                    .map(BuildType::getId)
+                    .collect(Collectors.toList());
+        }
+        List<String> users;
+        try (var all = checked.getUserRequest().list(null)) {
+            users = all.map(User::getUsername)
+                    .filter(username -> username != null && username.startsWith(prefix))
+                    .collect(Collectors.toList());
+        }
+
+        var executor = new BoundedExecutor("sweeper", Config.getInt("sweepParallelism", 8));
+        var rateLimiter = new RateLimiter(Config.getDouble("sweepRate", 20));
+        try {
+            // projects first: deleting one also removes its subprojects and build types, which are not listed
+            var projectOutcomes = deleteAll(executor, rateLimiter, topProjects, unchecked.getProjectRequest()::delete);
+            var buildTypeOutcomes = deleteAll(executor, rateLimiter, buildTypes,
+                    unchecked.getBuildConfigRequest()::delete);
+            var userOutcomes = deleteAll(executor, rateLimiter, users, unchecked.getUserRequest()::delete);
+            return new SweepReport(prefix, projectOutcomes.get(Outcome.REMOVED), buildTypeOutcomes.get(Outcome.REMOVED),
+                    userOutcomes.get(Outcome.REMOVED),
+                    sum(Outcome.GONE, projectOutcomes, buildTypeOutcomes, userOutcomes),
+                    sum(Outcome.FAILED, projectOutcomes, buildTypeOutcomes, userOutcomes),
+                    Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Map<Outcome, Integer> deleteAll(BoundedExecutor executor, RateLimiter rateLimiter, List<String> ids,
+                                                   Function<String, Response> delete) {
+        var deletions = ids.stream()
+                .map(id -> executor.submit((Supplier<Outcome>) () -> {
+                    rateLimiter.acquire();
+                    int status = delete.apply(id).getStatusCode();
+                    if (status == HttpStatus.SC_NOT_FOUND) {
+                        return Outcome.GONE;
+                    }
+                    boolean removed = status == HttpStatus.SC_OK || status == HttpStatus.SC_NO_CONTENT;
+                    return removed ? Outcome.REMOVED : Outcome.FAILED;
+                }))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(deletions.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        var outcomes = new EnumMap<Outcome, Integer>(Outcome.class);
+        for (var outcome : Outcome.values()) {
+            outcomes.put(outcome, 0);
+        }
+        deletions.forEach(deletion -> outcomes.merge(
+                deletion.isCompletedExceptionally() ? Outcome.FAILED : deletion.join(), 1, Integer::sum));
+        return outcomes;
+    }
+
+    @SafeVarargs
+    private static int sum(Outcome outcome, Map<Outcome, Integer>... outcomes) {
+        int sum = 0;
+        for (var counts : outcomes) {
+            sum += counts.get(outcome);
+        }
+        return sum;
+    }
+
+    private static String projectId(BuildType buildType) {
+        if (buildType.getProjectId() != null) {
+            return buildType.getProjectId();
+        }
+        return buildType.getProject() != null ? buildType.getProject().getId() : null;
+    }
+
+    private enum Outcome {
+        REMOVED, GONE, FAILED
+    }
+
+    public static void main(String[] args) {
+        var prefix = args.length > 0 ? args[0] : Config.getProperty("sweepPrefix", "test_");
+        System.out.println(withSuperUser().sweep(prefix));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.teamcity.api.load;
+
+public enum LoadOperation {
+    CREATE_PROJECT("createProject"),
+
+    CREATE_BUILD_TYPE("createBuildType"),
+
+    QUEUE_BUILD("queueBuild");
+
+    private final String text;
+
+    LoadOperation(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public static LoadOperation fromText(String text) {
+        for (var operation : values()) {
+            if (operation.text.equals(text)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load operation: " + text);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.config.Config;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What {@link LoadRunner} runs: either {@code concurrency} workers issuing requests back to back (closed model)
+ * or {@code rate} new operations per second regardless of how fast they complete (open model).
+ */
+@Value
+@Builder
+public class LoadProfile {
+    public enum Mode {
+        CONCURRENCY, RATE
+    }
+
+    // RESTASSURED: the checked requests; HTTP_CLIENT: the lean JDK transport in requests.http
+    public enum Transport {
+        RESTASSURED, HTTP_CLIENT
+    }
+
+    Mode mode;
+    Transport transport;
+    int concurrency;
+    double rate;
+    int maxInFlight;
+    Duration warmUp;
+    Duration duration;
+    Map<LoadOperation, Integer> mix;
+
+    public static LoadProfile fromConfig() {
+        return LoadProfile.builder()
+                .mode(Mode.valueOf(Config.getProperty("load.mode", "concurrency").toUpperCase()))
+                .transport(Transport.valueOf(Config.getProperty("load.transport", "restassured").toUpperCase()))
+                .concurrency(Config.getInt("load.concurrency", 16))
+                .rate(Config.getDouble("load.rate", 50))
+                .maxInFlight(Config.getInt("load.maxInFlight", 256))
+                .warmUp(Config.getDuration("load.warmUp", Duration.ofSeconds(5)))
+                .duration(Config.getDuration("load.duration", Duration.ofSeconds(30)))
+                .mix(parseMix(Config.getProperty("load.mix", "createProject:1,createBuildType:2,queueBuild:4")))
+                .build();
+    }
+
+    // createProject:1,queueBuild:4 -> weights per operation; operations not listed are not run
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<LoadOperation, Integer>(LoadOperation.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(LoadOperation.fromText(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operations: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.teamcity.api.load;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Value
+public class LoadReport {
+    LoadProfile profile;
+    Duration elapsed;
+    Map<LoadOperation, OperationStats> operations;
+
+    public double getThroughput(LoadOperation operation) {
+        return operations.get(operation).getLatency().getCount() / seconds();
+    }
+
+    public double getErrorRate(LoadOperation operation) {
+        var stats = operations.get(operation);
+        long errors = stats.getErrors().sum();
+        long total = stats.getLatency().getCount() + errors;
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    @Override
+    public String toString() {
+        var report = new StringBuilder(String.format("Load %s over %s for %d s (warm-up %d s excluded)%n",
+                profile.getMode() == LoadProfile.Mode.RATE
+                        ? String.format("at %.1f ops/s", profile.getRate())
+                        : "with " + profile.getConcurrency() + " workers",
+                profile.getTransport().name().toLowerCase(),
+                elapsed.toSeconds(), profile.getWarmUp().toSeconds()));
+        report.append(String.format("%-16s %8s %9s %8s %9s %9s %9s %9s%n",
+                "operation", "ok", "ok/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        operations.forEach((operation, stats) -> {
+            var latency = stats.getLatency();
+            report.append(String.format("%-16s %8d %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.getText(), latency.getCount(), getThroughput(operation), getErrorRate(operation) * 100,
+                    millis(latency.getPercentile(50)), millis(latency.getPercentile(90)),
+                    millis(latency.getPercentile(99)), millis(latency.getMax())));
+        });
+        return report.toString();
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1e9;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.generators.EntityRegistry;
+import com.example.teamcity.api.generators.RandomData;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.NewBuildTypeId;
+import com.example.teamcity.api.models.NewProjectDescription;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.RunBuild;
+import com.example.teamcity.api.requests.CheckedRequests;
+import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.UncheckedRequests;
+import com.example.teamcity.api.requests.http.HttpRequests;
+import com.example.teamcity.api.spec.Specifications;
+import com.example.teamcity.api.stub.TeamCityStubServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a weighted mix of {@link LoadOperation}s under a scratch project and reports throughput, errors and latency
+ * percentiles per operation. In RATE mode latency counts from the scheduled start, so queueing for a slot is included.
+ */
+public class LoadRunner {
+    private final CrudInterface projects;
+    private final CrudInterface buildTypes;
+    private final CrudInterface buildQueue;
+    private final UncheckedRequests unchecked;
+    private final LoadProfile profile;
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<LoadOperation, OperationStats> stats = new EnumMap<>(LoadOperation.class);
+    private String scratchProjectId;
+    private String scratchBuildTypeId;
+
+    public LoadRunner(LoadProfile profile) {
+        var spec = Specifications.getSpec().superUserSpec();
+        if (profile.getTransport() == LoadProfile.Transport.HTTP_CLIENT) {
+            var http = HttpRequests.withSuperUser();
+            this.projects = http.getProjectRequest();
+            this.buildTypes = http.getBuildConfigRequest();
+            this.buildQueue = http.getRunBuildRequest();
+        } else {
+            var checked = new CheckedRequests(spec);
+            this.projects = checked.getProjectRequest();
+            this.buildTypes = checked.getBuildConfigRequest();
+            this.buildQueue = checked.getRunBuildRequest();
+        }
+        this.unchecked = new UncheckedRequests(spec);
+        this.profile = profile;
+        this.operations = profile.getMix().keySet().toArray(new LoadOperation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += profile.getMix().get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new OperationStats());
+        }
+    }
+
+    public LoadReport run() {
+        try {
+            createScratchProject();
+            long start = System.nanoTime();
+            long measureFrom = start + profile.getWarmUp().toNanos();
+            long end = measureFrom + profile.getDuration().toNanos();
+            if (profile.getMode() == LoadProfile.Mode.RATE) {
+                runAtRate(start, measureFrom, end);
+            } else {
+                runWithWorkers(measureFrom, end);
+            }
+            return new LoadReport(profile, Duration.ofNanos(Math.max(System.nanoTime(), end) - measureFrom), stats);
+        } finally {
+            if (scratchProjectId != null) {
+                unchecked.getProjectRequest().delete(scratchProjectId);
+            }
+        }
+    }
+
+    private void runWithWorkers(long measureFrom, long end) {
+        var executor = new BoundedExecutor("load-worker", profile.getConcurrency());
+        try {
+            var workers = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < profile.getConcurrency(); i++) {
+                workers.add(executor.run(() -> {
+                    for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+                        execute(nextOperation(), now, measureFrom);
+                    }
+                }));
+            }
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void runAtRate(long start, long measureFrom, long end) {
+        var executor = new BoundedExecutor("load-arrival", profile.getMaxInFlight());
+        try {
+            long interval = (long) (1e9 / profile.getRate());
+            var inFlight = new ArrayList<CompletableFuture<Void>>();
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long scheduledStart = scheduled;
+                var operation = nextOperation();
+                inFlight.add(executor.run(() -> execute(operation, scheduledStart, measureFrom)));
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void execute(LoadOperation operation, long startNanos, long measureFrom) {
+        boolean measured = startNanos >= measureFrom;
+        try {
+            // everything ends up in the scratch project, which is deleted as a whole
+            EntityRegistry.getRegistry().untracked(() -> perform(operation));
+            if (measured) {
+                stats.get(operation).success(System.nanoTime() - startNanos);
+            }
+        } catch (RuntimeException | AssertionError e) {
+            if (measured) {
+                stats.get(operation).failure();
+            }
+        }
+    }
+
+    private Object perform(LoadOperation operation) {
+        switch (operation) {
+            case CREATE_PROJECT:
+                return projects.create(NewProjectDescription.builder()
+                        .parentProject(Project.builder().locator("id:" + scratchProjectId).build())
+                        .name(RandomData.getString())
+                        .id(RandomData.getString())
+                        .copyAllAssociatedSettings(true)
+                        .build());
+            case CREATE_BUILD_TYPE:
+                return buildTypes.create(BuildType.builder()
+                        .id(RandomData.getString())
+                        .name(RandomData.getString())
+                        .project(NewProjectDescription.builder().id(scratchProjectId).build())
+                        .build());
+            case QUEUE_BUILD:
+                return buildQueue.create(RunBuild.builder()
+                        .buildType(NewBuildTypeId.builder().id(scratchBuildTypeId).build())
+                        .build());
+        }
+        throw new IllegalArgumentException("Unknown operation " + operation);
+    }
+
+    private LoadOperation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void createScratchProject() {
+        scratchProjectId = ((Project) projects.create(NewProjectDescription.builder()
+                .parentProject(Project.builder().locator("_Root").build())
+                .name("load_" + RandomData.getString())
+                .id("load_" + RandomData.getString())
+                .copyAllAssociatedSettings(true)
+                .build())).getId();
+        scratchBuildTypeId = ((BuildType) buildTypes.create(BuildType.builder()
+                .id(RandomData.getString())
+                .name(RandomData.getString())
+                .project(NewProjectDescription.builder().id(scratchProjectId).build())
+                .build())).getId();
+    }
+
+    public static void main(String[] args) {
+        // per-request log buffering is for failed tests, not for thousands of load requests
+        if (System.getProperty("httpLogging") == null) {
+            Config.override("httpLogging", "none");
+        }
+        TeamCityStubServer stub = null;
+        if (Config.getBoolean("stubServer", false)) {
+            stub = TeamCityStubServer.startForConfig();
+        }
+        try {
+            System.out.print(new LoadRunner(LoadProfile.fromConfig()).run());
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.teamcity.api.load;
+
+import com.example.teamcity.api.metrics.LatencyHistogram;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@Getter
+public class OperationStats {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    void success(long latencyNanos) {
+        latency.record(latencyNanos);
+    }
+
+    void failure() {
+        errors.increment();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.teamcity.api.metrics;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time in queue and time to finish of the builds observed by {@link com.example.teamcity.api.requests.BuildWaiter}
+ * and {@link com.example.teamcity.api.requests.BuildTracker}; each value may be late by up to one poll.
+ */
+@Getter
+public class BuildTimings {
+    private static final BuildTimings buildTimings = new BuildTimings();
+
+    private final LatencyHistogram timeInQueue = new LatencyHistogram();
+    private final LatencyHistogram timeToFinish = new LatencyHistogram();
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<String, Long> queuedAt = new ConcurrentHashMap<>();
+
+    public static BuildTimings getBuildTimings() {
+        return buildTimings;
+    }
+
+    public void queued(String buildId) {
+        if (buildId != null) {
+            queuedAt.put(buildId, System.nanoTime());
+        }
+    }
+
+    // When the build was queued through CheckedRunBuild; null for other builds and once its time in queue is recorded
+    public Long queuedAt(String buildId) {
+        return queuedAt.get(buildId);
+    }
+
+    // Records the time in queue once per build: from queued() if the build went through it, otherwise from
+    // sinceNanos, which callers pass only when they saw the build queued themselves
+    public void dequeued(String buildId, Long sinceNanos) {
+        var queued = queuedAt.remove(buildId);
+        var from = queued != null ? queued : sinceNanos;
+        if (from != null) {
+            timeInQueue.record(System.nanoTime() - from);
+        }
+    }
+
+    public void forget(String buildId) {
+        queuedAt.remove(buildId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("time in queue: %s%ntime to finish: %s%n", describe(timeInQueue), describe(timeToFinish));
+    }
+
+    private static String describe(LatencyHistogram histogram) {
+        return String.format("count=%d p50=%d ms p90=%d ms p99=%d ms max=%d ms", histogram.getCount(),
+                histogram.getPercentile(50).toMillis(), histogram.getPercentile(90).toMillis(),
+                histogram.getPercentile(99).toMillis(), histogram.getMax().toMillis());
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.teamcity.api.metrics;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histograms per HTTP method and endpoint template, e.g. {@code GET /app/rest/projects/id:{id}}.
+ * {@link #record(String, String, long)} neither locks nor allocates once an endpoint has been seen.
+ */
+public class EndpointLatencies {
+    private static final int CAPACITY = 1024;
+    private static final int MAX_ENDPOINTS = CAPACITY * 3 / 4;
+    private static final EndpointLatencies endpointLatencies = new EndpointLatencies();
+
+    private final AtomicReferenceArray<Endpoint> table = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicInteger size = new AtomicInteger();
+    private final Endpoint overflow = new Endpoint(0, "*", "(other)");
+    private final ThreadLocal<Hasher> hashers = ThreadLocal.withInitial(Hasher::new);
+    private final ThreadLocal<Matcher> matchers = ThreadLocal.withInitial(Matcher::new);
+
+    public static EndpointLatencies getEndpointLatencies() {
+        return endpointLatencies;
+    }
+
+    public void record(String method, String path, long nanos) {
+        endpoint(method, path).getLatency().record(nanos);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        var endpoints = new ArrayList<Endpoint>();
+        for (int i = 0; i < CAPACITY; i++) {
+            var endpoint = table.get(i);
+            if (endpoint != null) {
+                endpoints.add(endpoint);
+            }
+        }
+        if (overflow.getLatency().getCount() > 0) {
+            endpoints.add(overflow);
+        }
+        endpoints.sort(Comparator.comparing(Endpoint::getPath).thenComparing(Endpoint::getMethod));
+        return endpoints;
+    }
+
+    public String toCsv() {
+        var csv = new StringBuilder("method,endpoint,count,p50_ms,p90_ms,p99_ms,max_ms\n");
+        for (var endpoint : getEndpoints()) {
+            var latency = endpoint.getLatency();
+            csv.append(String.format("%s,%s,%d,%.3f,%.3f,%.3f,%.3f%n", endpoint.getMethod(), endpoint.getPath(),
+                    latency.getCount(), millis(latency.getPercentile(50)), millis(latency.getPercentile(90)),
+                    millis(latency.getPercentile(99)), millis(latency.getMax())));
+        }
+        return csv.toString();
+    }
+
+    public void writeCsv(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, toCsv());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Endpoint endpoint(String method, String path) {
+        var hasher = hashers.get();
+        hasher.reset();
+        normalize(method, path, hasher);
+        long hash = hasher.hash;
+        var matcher = matchers.get();
+        for (int probe = 0, i = (int) (hash ^ (hash >>> 32)) & (CAPACITY - 1); probe < CAPACITY; probe++, i = (i + 1) & (CAPACITY - 1)) {
+            var endpoint = table.get(i);
+            if (endpoint == null) {
+                if (size.get() >= MAX_ENDPOINTS) {
+                    return overflow;
+                }
+                var builder = new Builder();
+                normalize(method, path, builder);
+                var created = new Endpoint(hash, method, builder.path.toString());
+                if (table.compareAndSet(i, null, created)) {
+                    size.incrementAndGet();
+                    return created;
+                }
+                endpoint = table.get(i);
+            }
+            if (endpoint.hash == hash && matcher.matches(endpoint, method, path)) {
+                return endpoint;
+            }
+        }
+        return overflow;
+    }
+
+    // Emits the template of the path (up to '?') one character at a time
+    static void normalize(String method, String path, Sink sink) {
+        for (int i = 0; i < method.length(); i++) {
+            sink.accept(method.charAt(i));
+        }
+        sink.accept(' ');
+        int end = path.indexOf('?');
+        if (end < 0) {
+            end = path.length();
+        }
+        int i = 0;
+        while (i < end) {
+            if (path.charAt(i) == '/') {
+                sink.accept('/');
+                i++;
+                continue;
+            }
+            int segmentEnd = segmentEnd(path, i, end);
+            int colon = path.indexOf(':', i);
+            if (colon >= 0 && colon < segmentEnd) {
+                i = normalizeLocator(path, i, segmentEnd, sink);
+            } else if (isNumber(path, i, segmentEnd)) {
+                sink.accept('{');
+                sink.accept('n');
+                sink.accept('}');
+                i = segmentEnd;
+            } else {
+                for (; i < segmentEnd; i++) {
+                    sink.accept(path.charAt(i));
+                }
+            }
+        }
+    }
+
+    // dim1:value1,dim2:(nested:value) -> dim1:{dim1},dim2:{dim2}
+    private static int normalizeLocator(String path, int start, int end, Sink sink) {
+        int i = start;
+        while (i < end) {
+            int dimensionStart = i;
+            while (i < end && path.charAt(i) != ':' && path.charAt(i) != ',') {
+                sink.accept(path.charAt(i++));
+            }
+            if (i < end && path.charAt(i) == ':') {
+                sink.accept(':');
+                sink.accept('{');
+                for (int d = dimensionStart; d < i; d++) {
+                    sink.accept(path.charAt(d));
+                }
+                sink.accept('}');
+                int depth = 0;
+                for (i++; i < end; i++) {
+                    char c = path.charAt(i);
+                    if (c == '(') {
+                        depth++;
+                    } else if (c == ')') {
+                        depth--;
+                    } else if (c == ',' && depth == 0) {
+                        break;
+                    }
+                }
+            }
+            if (i < end) {
+                sink.accept(',');
+                i++;
+            }
+        }
+        return end;
+    }
+
+    private static int segmentEnd(String path, int start, int end) {
+        int depth = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '/' && depth <= 0) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isNumber(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return end > start;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+
+    interface Sink {
+        void accept(char c);
+    }
+
+    private static class Hasher implements Sink {
+        private long hash;
+
+        void reset() {
+            hash = 0xcbf29ce484222325L;
+        }
+
+        @Override
+        public void accept(char c) {
+            hash = (hash ^ c) * 0x100000001b3L;
+        }
+    }
+
+    private static class Matcher implements Sink {
+        private String expected;
+        private int position;
+        private boolean matches;
+
+        boolean matches(Endpoint endpoint, String method, String path) {
+            expected = endpoint.key;
+            position = 0;
+            matches = true;
+            normalize(method, path, this);
+            return matches && position == expected.length();
+        }
+
+        @Override
+        public void accept(char c) {
+            if (matches && (position >= expected.length() || expected.charAt(position++) != c)) {
+                matches = false;
+            }
+        }
+    }
+
+    private static class Builder implements Sink {
+        private final StringBuilder path = new StringBuilder();
+
+        @Override
+        public void accept(char c) {
+            path.append(c);
+        }
+    }
+
+    public static class Endpoint {
+        private final long hash;
+        private final String key;
+        @Getter
+        private final String method;
+        @Getter
+        private final String path;
+        @Getter
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Endpoint(long hash, String method, String key) {
+            this.hash = hash;
+            this.key = key;
+            this.method = method;
+            this.path = key.startsWith(method + " ") ? key.substring(method.length() + 1) : key;
+        }
+    }
+}
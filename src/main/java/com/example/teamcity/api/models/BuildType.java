@@ -15,4 +15,5 @@ public class BuildType {
     private String id;
     private NewProjectDescription project;
     private String name;
+    private String projectId;
 }
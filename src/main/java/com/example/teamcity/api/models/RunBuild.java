@@ -19,4 +19,16 @@ public class RunBuild {
     private String buildTypeId;
 
     private String id;
+
+    private String state;
+
+    private String status;
+
+    private String statusText;
+
+    private String queuedDate;
+
+    private String startDate;
+
+    private String finishDate;
 }
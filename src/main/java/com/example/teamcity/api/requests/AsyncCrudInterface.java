@@ -0,0 +1,15 @@
+package com.example.teamcity.api.requests;
+
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncCrudInterface {
+    public CompletableFuture<Response> create(Object obj);
+
+    public CompletableFuture<Response> get(String id);
+
+    public CompletableFuture<Response> update(String id, Object obj);
+
+    public CompletableFuture<Response> delete(String id);
+}
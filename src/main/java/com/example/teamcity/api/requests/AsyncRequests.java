@@ -0,0 +1,24 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.requests.async.AsyncRequest;
+import com.example.teamcity.api.requests.unchecked.UncheckedBuildConfig;
+import com.example.teamcity.api.requests.unchecked.UncheckedProject;
+import com.example.teamcity.api.requests.unchecked.UncheckedRunBuild;
+import com.example.teamcity.api.requests.unchecked.UncheckedUser;
+import io.restassured.specification.RequestSpecification;
+import lombok.Getter;
+
+@Getter
+public class AsyncRequests {
+    private AsyncRequest userRequest;
+    private AsyncRequest projectRequest;
+    private AsyncRequest buildConfigRequest;
+    private AsyncRequest runBuildRequest;
+
+    public AsyncRequests(RequestSpecification spec) {
+        this.userRequest = new AsyncRequest(new UncheckedUser(spec));
+        this.buildConfigRequest = new AsyncRequest(new UncheckedBuildConfig(spec));
+        this.projectRequest = new AsyncRequest(new UncheckedProject(spec));
+        this.runBuildRequest = new AsyncRequest(new UncheckedRunBuild(spec));
+    }
+}
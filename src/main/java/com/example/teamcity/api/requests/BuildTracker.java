@@ -0,0 +1,187 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.metrics.BuildTimings;
+import com.example.teamcity.api.models.Builds;
+import com.example.teamcity.api.models.RunBuild;
+import com.example.teamcity.api.requests.unchecked.UncheckedRunBuild;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks many builds with one batched {@code /app/rest/builds?locator=item:(id:..),..} query per poll instead of a
+ * GET per build. Its futures complete when a build starts or finishes and fail after the timeout.
+ */
+public class BuildTracker implements AutoCloseable {
+    private final UncheckedRunBuild runBuildRequest;
+    private final int batchSize = Config.getInt("buildTrackerBatchSize", 100);
+    private final Duration timeout;
+    private final Map<String, Tracked> pending = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "build-tracker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BuildTracker(RequestSpecification spec) {
+        this(spec, Config.getDuration("buildWaitTimeout", Duration.ofMinutes(10)));
+    }
+
+    public BuildTracker(RequestSpecification spec, Duration timeout) {
+        this.runBuildRequest = new UncheckedRunBuild(spec);
+        this.timeout = timeout;
+        long interval = Config.getDuration("buildTrackerInterval", Duration.ofMillis(500)).toMillis();
+        scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<RunBuild> whenStarted(String buildId) {
+        return track(buildId).started;
+    }
+
+    public CompletableFuture<RunBuild> whenFinished(String buildId) {
+        return track(buildId).finished;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // Server requests made so far; grows with polling intervals, not with tracked builds
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        pending.values().forEach(tracked -> tracked.fail(new CancellationException("Build tracker closed")));
+        pending.clear();
+    }
+
+    private Tracked track(String buildId) {
+        return pending.computeIfAbsent(buildId, id -> new Tracked(id, System.nanoTime() + timeout.toNanos()));
+    }
+
+    // Must not throw: an exception would cancel the scheduled polling
+    private void poll() {
+        var ids = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            var batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            try {
+                pollBatch(batch);
+            } catch (RuntimeException | AssertionError e) {
+                // retried on the next interval; kept for the timeout message
+                batch.forEach(id -> {
+                    var tracked = pending.get(id);
+                    if (tracked != null) {
+                        tracked.lastError = e;
+                    }
+                });
+            }
+        }
+        failExpired();
+    }
+
+    private void failExpired() {
+        long now = System.nanoTime();
+        for (var tracked : pending.values()) {
+            if (now - tracked.deadline > 0 && pending.remove(tracked.id, tracked)) {
+                var timedOut = new TimeoutException("Build " + tracked.id + " did not finish within " + timeout
+                        + ", last state: " + tracked.lastState
+                        + (tracked.lastError != null ? ", last poll failed: " + tracked.lastError.getMessage() : ""));
+                timedOut.initCause(tracked.lastError);
+                tracked.fail(timedOut);
+            }
+        }
+    }
+
+    private void pollBatch(List<String> ids) {
+        var locator = ids.stream().map(id -> "item:(id:" + id + ")").collect(Collectors.joining(","))
+                + ",count:" + ids.size();
+        requestCount.incrementAndGet();
+        var response = runBuildRequest.getBuilds(locator);
+        if (response.statusCode() != HttpStatus.SC_OK) {
+            throw new IllegalStateException("Polling builds failed with " + response.getStatusLine() + ": " + response.asString());
+        }
+        var builds = response.as(Builds.class).getBuild();
+        var seen = new HashSet<String>();
+        if (builds != null) {
+            for (var build : builds) {
+                seen.add(build.getId());
+                var tracked = pending.get(build.getId());
+                if (tracked != null && tracked.update(build)) {
+                    // removed before completing, so callers woken by the future see it gone
+                    pending.remove(build.getId());
+                    tracked.finished.complete(build);
+                }
+            }
+        }
+        for (var id : ids) {
+            if (!seen.contains(id)) {
+                var tracked = pending.remove(id);
+                if (tracked != null) {
+                    tracked.fail(new IllegalStateException("Build " + id + " is neither queued nor in history (canceled or deleted)"));
+                }
+            }
+        }
+    }
+
+    private static class Tracked {
+        private final String id;
+        private final long deadline;
+        private final Long known;
+        private final long queuedAt;
+        private final CompletableFuture<RunBuild> started = new CompletableFuture<>();
+        private final CompletableFuture<RunBuild> finished = new CompletableFuture<>();
+        private volatile String lastState;
+        private volatile Throwable lastError;
+        private volatile boolean seenQueued;
+
+        private Tracked(String id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+            this.known = BuildTimings.getBuildTimings().queuedAt(id);
+            this.queuedAt = known != null ? known : System.nanoTime();
+        }
+
+        // true once the build has finished and only the finished future is left to complete
+        boolean update(RunBuild build) {
+            lastState = build.getState();
+            lastError = null;
+            var timings = BuildTimings.getBuildTimings();
+            if ("queued".equals(build.getState())) {
+                seenQueued = true;
+            } else if (started.complete(build)) {
+                timings.dequeued(id, seenQueued ? queuedAt : null);
+            }
+            if ("finished".equals(build.getState())) {
+                if (known != null || seenQueued) {
+                    timings.getTimeToFinish().record(System.nanoTime() - queuedAt);
+                }
+                return true;
+            }
+            return false;
+        }
+
+        void fail(Throwable cause) {
+            started.completeExceptionally(cause);
+            finished.completeExceptionally(cause);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.metrics.BuildTimings;
+import com.example.teamcity.api.models.RunBuild;
+import com.example.teamcity.api.requests.checked.CheckedRunBuild;
+import com.example.teamcity.api.requests.unchecked.UncheckedRunBuild;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Polls one queued build until it starts or finishes, with pauses that grow with the age of the wait.
+ */
+public class BuildWaiter extends Request {
+    private static final Duration MIN_INTERVAL = Config.getDuration("buildPollMinInterval", Duration.ofMillis(50));
+    private static final Duration MAX_INTERVAL = Config.getDuration("buildPollMaxInterval", Duration.ofSeconds(5));
+    private static final double AGE_FRACTION = Config.getDouble("buildPollAgeFraction", 0.1);
+    private static final Duration DEFAULT_TIMEOUT = Config.getDuration("buildWaitTimeout", Duration.ofMinutes(10));
+
+    public BuildWaiter(RequestSpecification spec) {
+        super(spec);
+    }
+
+    public RunBuild waitUntilStarted(String id) {
+        return waitUntilStarted(id, DEFAULT_TIMEOUT);
+    }
+
+    public RunBuild waitUntilStarted(String id, Duration timeout) {
+        return await(id, false, timeout);
+    }
+
+    public RunBuild waitUntilFinished(String id) {
+        return waitUntilFinished(id, DEFAULT_TIMEOUT);
+    }
+
+    public RunBuild waitUntilFinished(String id, Duration timeout) {
+        return await(id, true, timeout);
+    }
+
+    // Pause before the next poll for a build that has been waited on for ageNanos
+    static long nextInterval(long ageNanos) {
+        return Math.min(MAX_INTERVAL.toNanos(), Math.max(MIN_INTERVAL.toNanos(), (long) (ageNanos * AGE_FRACTION)));
+    }
+
+    private RunBuild await(String id, boolean untilFinished, Duration timeout) {
+        var timings = BuildTimings.getBuildTimings();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        var known = timings.queuedAt(id);
+        long queuedAt = known != null ? known : start;
+        boolean seenQueued = false;
+        boolean dequeued = false;
+        while (true) {
+            RunBuild build = null;
+            if (!dequeued) {
+                var response = new UncheckedRunBuild(spec).get(id);
+                if (response.statusCode() == HttpStatus.SC_OK) {
+                    build = response.as(RunBuild.class);
+                    seenQueued |= "queued".equals(build.getState());
+                }
+            }
+            if (build == null || !"queued".equals(build.getState())) {
+                if (!dequeued) {
+                    dequeued = true;
+                    // a build awaited before (e.g. started, then finished) has no entry left and is not recorded again
+                    timings.dequeued(id, seenQueued ? queuedAt : null);
+                }
+                if (build == null) {
+                    build = new CheckedRunBuild(spec).getBuild(id);
+                }
+            }
+            if ("finished".equals(build.getState())) {
+                if (known != null || seenQueued) {
+                    timings.getTimeToFinish().record(System.nanoTime() - queuedAt);
+                }
+                return build;
+            }
+            if (dequeued && !untilFinished) {
+                return build;
+            }
+            long now = System.nanoTime();
+            if (now >= deadline) {
+                throw new AssertionError(String.format("Build %s did not %s within %s, last state: %s",
+                        id, untilFinished ? "finish" : "start", timeout, build.getState()));
+            }
+            LockSupport.parkNanos(Math.min(nextInterval(now - queuedAt), deadline - now));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.spec.BufferedLoggingFilter;
+import com.example.teamcity.api.spec.ModelMapper;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.Response;
+import org.apache.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates a TeamCity collection page by page, holding only the current page and the next one, which is fetched
+ * in the background.
+ */
+public class PageIterator<T> implements Iterator<T> {
+    private static final BoundedExecutor PREFETCH_EXECUTOR = new BoundedExecutor("page-prefetch",
+            Config.getInt("listPrefetchParallelism", 4));
+
+    private final Function<String, Response> fetchPage;
+    private final String locator;
+    private final String itemField;
+    private final ObjectReader reader;
+    private final int pageSize;
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<Page<T>> next;
+
+    public PageIterator(Function<String, Response> fetchPage, String locator, String itemField, Class<T> type, int pageSize) {
+        this.fetchPage = fetchPage;
+        this.locator = locator;
+        this.itemField = itemField;
+        this.reader = ModelMapper.getModelMapper().reader(type);
+        this.pageSize = pageSize;
+        this.next = prefetch(0);
+    }
+
+    // fetchPage gets the full locator of one page, itemField is the array in the page ("project", "buildType", ...)
+    public static <T> Stream<T> stream(Function<String, Response> fetchPage, String locator, String itemField, Class<T> type) {
+        var iterator = new PageIterator<>(fetchPage, locator, itemField, type, Config.getInt("listPageSize", 100));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (next == null) {
+                return false;
+            }
+            var page = join(next);
+            next = page.hasMore ? prefetch(page.start + pageSize) : null;
+            current = page.items.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    // A page already on its way is not waited for, its result is dropped
+    public void close() {
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+        current = Collections.emptyIterator();
+    }
+
+    private CompletableFuture<Page<T>> prefetch(int start) {
+        return PREFETCH_EXECUTOR.submit(BufferedLoggingFilter.withCurrentBuffer(() -> read(start, fetchPage.apply(pageLocator(start))
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().response())));
+    }
+
+    private String pageLocator(int start) {
+        var paging = "count:" + pageSize + ",start:" + start;
+        return locator == null || locator.isEmpty() ? paging : locator + "," + paging;
+    }
+
+    private Page<T> read(int start, Response response) {
+        var items = new ArrayList<T>(pageSize);
+        boolean hasMore = false;
+        try (var parser = ModelMapper.getMapper().getFactory().createParser(response.asInputStream())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Expected a collection object, got " + parser.currentToken());
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.getCurrentName();
+                var token = parser.nextToken();
+                if (field.equals(itemField) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        items.add(reader.readValue(parser));
+                    }
+                } else if (field.equals("nextHref")) {
+                    hasMore = token == JsonToken.VALUE_STRING;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Page<>(start, items, hasMore && !items.isEmpty());
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Page<T> {
+        private final int start;
+        private final List<T> items;
+        private final boolean hasMore;
+
+        private Page(int start, List<T> items, boolean hasMore) {
+            this.start = start;
+            this.items = items;
+            this.hasMore = hasMore;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.teamcity.api.requests;
+
+import com.example.teamcity.api.config.Config;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.Value;
+import org.apache.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.BiPredicate;
+
+/**
+ * Opt-in ({@code responseCache}) LRU cache of single-entity GETs per path and caller. Entries with an ETag or
+ * Last-Modified are revalidated on every get; others are served for {@code ttl}.
+ */
+public class ResponseCache implements OrderedFilter {
+    private static final ResponseCache responseCache = new ResponseCache(() -> Config.getBoolean("responseCache", false),
+            Config.getDuration("responseCacheTtl", Duration.ofSeconds(2)), Config.getInt("responseCacheMaxEntries", 1000));
+
+    private final BooleanSupplier enabled;
+    private final long ttlNanos;
+    // LRU by (path, caller); guarded by itself together with pending
+    private final Map<Key, Entry> entries;
+    // The get in flight per key; invalidation removes it, so a response without validators that raced it is not stored
+    private final Map<Key, Object> pending = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCache(boolean enabled, Duration ttl, int maxEntries) {
+        this(() -> enabled, ttl, maxEntries);
+    }
+
+    private ResponseCache(BooleanSupplier enabled, Duration ttl, int maxEntries) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!isEnabled() || !requestSpec.getMethod().equals("GET")) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        var key = new Key(requestSpec.getUserDefinedPath(),
+                requestSpec.getBaseUri() + " " + requestSpec.getHeaders().getValue("Authorization"));
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            if (!entry.hasValidators() && System.nanoTime() - entry.storedAt < ttlNanos) {
+                hits.increment();
+                return entry.toResponse();
+            }
+            if (entry.etag != null) {
+                requestSpec.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                requestSpec.header("If-Modified-Since", entry.lastModified);
+            }
+        }
+
+        var token = new Object();
+        synchronized (entries) {
+            pending.put(key, token);
+        }
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                pending.remove(key, token);
+            }
+            throw e;
+        }
+        if (response.getStatusCode() == HttpStatus.SC_NOT_MODIFIED && entry != null) {
+            synchronized (entries) {
+                pending.remove(key, token);
+            }
+            revalidated.increment();
+            return entry.toResponse();
+        }
+        misses.increment();
+        var stored = response.getStatusCode() == HttpStatus.SC_OK ? new Entry(response) : null;
+        synchronized (entries) {
+            // a response with validators is revalidated before it is served, so it is safe to store even if it raced
+            boolean current = pending.remove(key, token);
+            if (stored != null && (current || stored.hasValidators())) {
+                entries.put(key, stored);
+            } else if (current) {
+                entries.remove(key);
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        // a hit never reaches logging or latency recording
+        return OrderedFilter.HIGHEST_PRECEDENCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled.getAsBoolean();
+    }
+
+    public void invalidate(String path) {
+        invalidateIf((key, entry) -> key.path.equals(path));
+    }
+
+    // For changes whose affected paths are not known, e.g. a delete that cascades to subprojects and build types.
+    // Entries with validators are revalidated on every get anyway, so only those served for the ttl are dropped
+    public void invalidateUnvalidated(String pathPrefix) {
+        invalidateIf((key, entry) -> key.path.startsWith(pathPrefix) && (entry == null || !entry.hasValidators()));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getRevalidatedCount() {
+        return revalidated.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private void invalidateIf(BiPredicate<Key, Entry> matches) {
+        synchronized (entries) {
+            entries.entrySet().removeIf(e -> matches.test(e.getKey(), e.getValue()));
+            pending.keySet().removeIf(key -> matches.test(key, null));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Response cache: %d hits, %d revalidated, %d misses%n",
+                getHitCount(), getRevalidatedCount(), getMissCount());
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        String caller;
+    }
+
+    private static class Entry {
+        private final Response response;
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+        private final long storedAt = System.nanoTime();
+
+        private Entry(Response response) {
+            this.response = response;
+            this.body = response.asByteArray();
+            this.etag = response.getHeader("ETag");
+            this.lastModified = response.getHeader("Last-Modified");
+        }
+
+        private boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        private Response toResponse() {
+            return new ResponseBuilder().clone(response).setBody(body).build();
+        }
+    }
+}
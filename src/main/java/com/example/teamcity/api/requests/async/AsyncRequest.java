@@ -0,0 +1,47 @@
+package com.example.teamcity.api.requests.async;
+
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.generators.EntityRegistry;
+import com.example.teamcity.api.requests.AsyncCrudInterface;
+import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.spec.BufferedLoggingFilter;
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class AsyncRequest implements AsyncCrudInterface {
+    private static final BoundedExecutor EXECUTOR = new BoundedExecutor("async-request",
+            Config.getInt("asyncMaxConcurrency", 16));
+
+    private final CrudInterface request;
+
+    public AsyncRequest(CrudInterface request) {
+        this.request = request;
+    }
+
+    @Override
+    public CompletableFuture<Response> create(Object obj) {
+        return submit(() -> (Response) request.create(obj));
+    }
+
+    @Override
+    public CompletableFuture<Response> get(String id) {
+        return submit(() -> (Response) request.get(id));
+    }
+
+    @Override
+    public CompletableFuture<Response> update(String id, Object obj) {
+        return submit(() -> (Response) request.update(id, obj));
+    }
+
+    @Override
+    public CompletableFuture<Response> delete(String id) {
+        return submit(() -> (Response) request.delete(id));
+    }
+
+    private static CompletableFuture<Response> submit(Supplier<Response> task) {
+        return EXECUTOR.submit(EntityRegistry.getRegistry().withCurrentThread(BufferedLoggingFilter.withCurrentBuffer(task)));
+    }
+}
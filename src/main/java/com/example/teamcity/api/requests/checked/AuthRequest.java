@@ -1,23 +1,33 @@
 package com.example.teamcity.api.requests.checked;
 
-import com.example.teamcity.api.models.User;
-import com.example.teamcity.api.spec.Specifications;
-import io.restassured.RestAssured;
+import com.example.teamcity.api.requests.Request;
 import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 
-public class AuthRequest {
-    private final RequestSpecification user;
+import static io.restassured.RestAssured.given;
+
+public class AuthRequest extends Request {
+    public static final String SESSION_COOKIE = "TCSESSIONID";
+    private static final String AUTHENTICATION_TEST_ENDPOINT = "/authenticationTest.html?csrf";
+
     public AuthRequest(RequestSpecification spec) {
-        this.user = spec;
+        super(spec);
     }
 
     public String getCsrfToken() {
-        return RestAssured
-                .given()
-                .spec(Specifications.getSpec().authSpec((User) user))
-                .get("/authenticationTest.html?crsf")
+        return given()
+                .spec(spec)
+                .get(AUTHENTICATION_TEST_ENDPOINT)
                 .then().assertThat().statusCode(HttpStatus.SC_OK)
                 .extract().asString();
     }
+
+    // A server session for the spec's user, e.g. to hand to a browser instead of logging in through the form
+    public String getSessionId() {
+        return given()
+                .spec(spec)
+                .get(AUTHENTICATION_TEST_ENDPOINT)
+                .then().assertThat().statusCode(HttpStatus.SC_OK).cookie(SESSION_COOKIE)
+                .extract().cookie(SESSION_COOKIE);
+    }
 }
@@ -2,11 +2,14 @@ package com.example.teamcity.api.requests.checked;
 
 import com.example.teamcity.api.models.BuildType;
 import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.PageIterator;
 import com.example.teamcity.api.requests.Request;
 import com.example.teamcity.api.requests.unchecked.UncheckedBuildConfig;
 import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 
+import java.util.stream.Stream;
+
 public class CheckedBuildConfig extends Request implements CrudInterface {
     public CheckedBuildConfig(RequestSpecification spec) {
         super(spec);
@@ -20,13 +23,21 @@ public class CheckedBuildConfig extends Request implements CrudInterface {
     }
 
     @Override
-    public Object get(String id) {
-        return null;
+    public BuildType get(String id) {
+        return new UncheckedBuildConfig(spec).get(id)
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().as(BuildType.class);
+    }
+
+    public Stream<BuildType> list(String locator) {
+        return PageIterator.stream(new UncheckedBuildConfig(spec)::list, locator, "buildType", BuildType.class);
     }
 
     @Override
-    public Object update(String id, Object obj) {
-        return null;
+    public BuildType update(String id, Object obj) {
+        return new UncheckedBuildConfig(spec).update(id, obj)
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().as(BuildType.class);
     }
 
     @Override
@@ -2,11 +2,14 @@ package com.example.teamcity.api.requests.checked;
 
 import com.example.teamcity.api.models.Project;
 import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.PageIterator;
 import com.example.teamcity.api.requests.Request;
 import com.example.teamcity.api.requests.unchecked.UncheckedProject;
 import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 
+import java.util.stream.Stream;
+
 public class CheckedProject extends Request implements CrudInterface {
 
     public CheckedProject(RequestSpecification spec) {
@@ -29,6 +32,11 @@ public class CheckedProject extends Request implements CrudInterface {
                 .extract().as(Project.class);
     }
 
+    // Lazily pages through everything the locator matches; close the stream when it is not read to the end
+    public Stream<Project> list(String locator) {
+        return PageIterator.stream(new UncheckedProject(spec)::list, locator, "project", Project.class);
+    }
+
     @Override
     public Project update(String id, Object obj) {
         return new UncheckedProject(spec)
@@ -1,12 +1,17 @@
 package com.example.teamcity.api.requests.checked;
 
+import com.example.teamcity.api.metrics.BuildTimings;
 import com.example.teamcity.api.models.RunBuild;
+import com.example.teamcity.api.requests.BuildWaiter;
 import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.PageIterator;
 import com.example.teamcity.api.requests.Request;
 import com.example.teamcity.api.requests.unchecked.UncheckedRunBuild;
 import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 
+import java.util.stream.Stream;
+
 public class CheckedRunBuild extends Request implements CrudInterface {
     public CheckedRunBuild(RequestSpecification spec) {
         super(spec);
@@ -14,15 +19,39 @@ public class CheckedRunBuild extends Request implements CrudInterface {
 
     @Override
     public RunBuild create(Object obj) {
-        return new UncheckedRunBuild(spec)
+        var runBuild = new UncheckedRunBuild(spec)
                 .create(obj)
                 .then().assertThat().statusCode(HttpStatus.SC_OK)
                 .extract().as(RunBuild.class);
+        BuildTimings.getBuildTimings().queued(runBuild.getId());
+        return runBuild;
     }
 
     @Override
-    public Object get(String id) {
-        return null;
+    public RunBuild get(String id) {
+        return new UncheckedRunBuild(spec)
+                .get(id)
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().as(RunBuild.class);
+    }
+
+    public RunBuild getBuild(String id) {
+        return new UncheckedRunBuild(spec)
+                .getBuild(id)
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().as(RunBuild.class);
+    }
+
+    public RunBuild waitUntilStarted(String id) {
+        return new BuildWaiter(spec).waitUntilStarted(id);
+    }
+
+    public RunBuild waitUntilFinished(String id) {
+        return new BuildWaiter(spec).waitUntilFinished(id);
+    }
+
+    public Stream<RunBuild> list(String locator) {
+        return PageIterator.stream(new UncheckedRunBuild(spec)::getBuilds, locator, "build", RunBuild.class);
     }
 
     @Override
@@ -2,11 +2,14 @@ package com.example.teamcity.api.requests.checked;
 
 import com.example.teamcity.api.models.User;
 import com.example.teamcity.api.requests.CrudInterface;
+import com.example.teamcity.api.requests.PageIterator;
 import com.example.teamcity.api.requests.Request;
 import com.example.teamcity.api.requests.unchecked.UncheckedUser;
 import io.restassured.specification.RequestSpecification;
 import org.apache.http.HttpStatus;
 
+import java.util.stream.Stream;
+
 public class CheckedUser  extends Request implements CrudInterface {
 
     public CheckedUser(RequestSpecification spec) {
@@ -22,13 +25,23 @@ public class CheckedUser  extends Request implements CrudInterface {
     }
 
     @Override
-    public Object get(String id) {
-        return null;
+    public User get(String id) {
+        return new UncheckedUser(spec)
+                .get(id)
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().as(User.class);
+    }
+
+    public Stream<User> list(String locator) {
+        return PageIterator.stream(new UncheckedUser(spec)::list, locator, "user", User.class);
     }
 
     @Override
-    public Object update(String id, Object obj) {
-        return null;
+    public User update(String id, Object obj) {
+        return new UncheckedUser(spec)
+                .update(id, obj)
+                .then().assertThat().statusCode(HttpStatus.SC_OK)
+                .extract().as(User.class);
     }
 
     @Override
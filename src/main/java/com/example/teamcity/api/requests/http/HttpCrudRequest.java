@@ -0,0 +1,70 @@
+package com.example.teamcity.api.requests.http;
+
+import com.example.teamcity.api.generators.EntityRegistry;
+import com.example.teamcity.api.requests.CrudInterface;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class HttpCrudRequest<T> implements CrudInterface {
+    private final HttpTransport transport = HttpTransport.getTransport();
+    private final String authorization;
+    private final String endpoint;
+    private final String locatorPrefix;
+    private final Class<T> type;
+    private final EntityRegistry.Kind kind;
+    private final Function<T, String> idOf;
+
+    // locatorPrefix turns an id into a path, e.g. "/id:" or "/username:"; idOf is what teardown deletes it by
+    public HttpCrudRequest(String authorization, String endpoint, String locatorPrefix, Class<T> type,
+                           EntityRegistry.Kind kind, Function<T, String> idOf) {
+        this.authorization = authorization;
+        this.endpoint = endpoint;
+        this.locatorPrefix = locatorPrefix;
+        this.type = type;
+        this.kind = kind;
+        this.idOf = idOf;
+    }
+
+    @Override
+    public T create(Object obj) {
+        return registered(transport.send(authorization, "POST", endpoint, obj, type));
+    }
+
+    @Override
+    public T get(String id) {
+        return transport.send(authorization, "GET", endpoint + locatorPrefix + id, null, type);
+    }
+
+    @Override
+    public T update(String id, Object obj) {
+        return transport.send(authorization, "PUT", endpoint + locatorPrefix + id, obj, type);
+    }
+
+    @Override
+    public String delete(String id) {
+        return transport.send(authorization, "DELETE", endpoint + locatorPrefix + id, null, String.class);
+    }
+
+    public CompletableFuture<T> createAsync(Object obj) {
+        return transport.sendAsync(authorization, "POST", endpoint, obj, type)
+                .thenApply(EntityRegistry.getRegistry().withCurrentThread(this::registered));
+    }
+
+    public CompletableFuture<T> getAsync(String id) {
+        return transport.sendAsync(authorization, "GET", endpoint + locatorPrefix + id, null, type);
+    }
+
+    public CompletableFuture<T> updateAsync(String id, Object obj) {
+        return transport.sendAsync(authorization, "PUT", endpoint + locatorPrefix + id, obj, type);
+    }
+
+    public CompletableFuture<String> deleteAsync(String id) {
+        return transport.sendAsync(authorization, "DELETE", endpoint + locatorPrefix + id, null, String.class);
+    }
+
+    private T registered(T created) {
+        EntityRegistry.getRegistry().register(kind, idOf.apply(created));
+        return created;
+    }
+}
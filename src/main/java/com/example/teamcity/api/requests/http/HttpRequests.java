@@ -0,0 +1,36 @@
+package com.example.teamcity.api.requests.http;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.generators.EntityRegistry;
+import com.example.teamcity.api.models.BuildType;
+import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.models.RunBuild;
+import com.example.teamcity.api.models.User;
+import lombok.Getter;
+
+@Getter
+public class HttpRequests {
+    private HttpCrudRequest<User> userRequest;
+    private HttpCrudRequest<Project> projectRequest;
+    private HttpCrudRequest<BuildType> buildConfigRequest;
+    private HttpCrudRequest<RunBuild> runBuildRequest;
+
+    public HttpRequests(User user) {
+        this(HttpTransport.basicAuth(user.getUsername(), user.getPassword()));
+    }
+
+    private HttpRequests(String authorization) {
+        this.userRequest = new HttpCrudRequest<>(authorization, "/app/rest/users", "/username:", User.class,
+                EntityRegistry.Kind.USER, User::getUsername);
+        this.buildConfigRequest = new HttpCrudRequest<>(authorization, "/app/rest/buildTypes", "/id:", BuildType.class,
+                EntityRegistry.Kind.BUILD_TYPE, BuildType::getId);
+        this.projectRequest = new HttpCrudRequest<>(authorization, "/app/rest/projects", "/id:", Project.class,
+                EntityRegistry.Kind.PROJECT, Project::getId);
+        this.runBuildRequest = new HttpCrudRequest<>(authorization, "/app/rest/buildQueue", "/id:", RunBuild.class,
+                EntityRegistry.Kind.BUILD, RunBuild::getId);
+    }
+
+    public static HttpRequests withSuperUser() {
+        return new HttpRequests(HttpTransport.basicAuth("", Config.getProperty("superUserToken")));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.teamcity.api.requests.http;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.metrics.EndpointLatencies;
+import com.example.teamcity.api.spec.ModelMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends model objects over the JDK {@link HttpClient} without RestAssured's filter chain, for load and fixture code.
+ * Any status outside 2xx fails with {@link HttpTransportException}.
+ */
+public class HttpTransport {
+    private static final HttpTransport httpTransport = new HttpTransport();
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final boolean latencyMetrics;
+
+    private HttpTransport() {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.valueOf(Config.getProperty("httpTransportVersion", "HTTP_2")))
+                .connectTimeout(Config.getDuration("connectTimeout", Duration.ofSeconds(5)))
+                .build();
+        requestTimeout = Config.getDuration("socketTimeout", Duration.ofSeconds(60));
+        latencyMetrics = Config.getBoolean("latencyMetrics", true);
+    }
+
+    public static HttpTransport getTransport() {
+        return httpTransport;
+    }
+
+    public static String basicAuth(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // type String.class gives the raw body; an empty body gives null
+    public <T> CompletableFuture<T> sendAsync(String authorization, String method, String path, Object body, Class<T> type) {
+        var request = HttpRequest.newBuilder(URI.create("http://" + Config.getProperty("host") + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Authorization", authorization);
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(serialize(body)));
+        }
+
+        long start = System.nanoTime();
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (latencyMetrics) {
+                        EndpointLatencies.getEndpointLatencies().record(method, path, System.nanoTime() - start);
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        throw new HttpTransportException(method, path, response.statusCode(),
+                                new String(response.body(), StandardCharsets.UTF_8));
+                    }
+                    return deserialize(response.body(), type);
+                });
+    }
+
+    public <T> T send(String authorization, String method, String path, Object body, Class<T> type) {
+        try {
+            return sendAsync(authorization, method, path, body, type).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    private static byte[] serialize(Object body) {
+        try {
+            return ModelMapper.getModelMapper().writer(body.getClass()).writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T deserialize(byte[] body, Class<T> type) {
+        if (body.length == 0) {
+            return null;
+        }
+        if (type == String.class) {
+            return (T) new String(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return ModelMapper.getModelMapper().reader(type).readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
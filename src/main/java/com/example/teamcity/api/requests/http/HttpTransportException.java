@@ -0,0 +1,15 @@
+package com.example.teamcity.api.requests.http;
+
+import lombok.Getter;
+
+@Getter
+public class HttpTransportException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public HttpTransportException(String method, String path, int statusCode, String body) {
+        super(method + " " + path + " answered " + statusCode + ": " + body);
+        this.statusCode = statusCode;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.teamcity.api.requests.unchecked;
 
+import com.example.teamcity.api.generators.EntityRegistry;
 import com.example.teamcity.api.requests.CrudInterface;
 import com.example.teamcity.api.requests.Request;
+import com.example.teamcity.api.requests.ResponseCache;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
@@ -16,29 +18,46 @@ public class UncheckedBuildConfig extends Request implements CrudInterface {
 
     @Override
     public Response create(Object obj) {
-        return given().spec(spec)
+        var response = given().spec(spec)
                 .body(obj)
                 .post(BUILD_CONFIG_ENDPOINT);
+        EntityRegistry.getRegistry().register(EntityRegistry.Kind.BUILD_TYPE, response, "id");
+        UncheckedProject.invalidateProject(response, "projectId");
+        return response;
     }
 
     @Override
     public Response get(String id) {
         return given()
                 .spec(spec)
+                .filter(ResponseCache.getResponseCache())
                 .get(BUILD_CONFIG_ENDPOINT + "/id:" + id);
     }
 
+    // One page; see PageIterator for all of them
+    public Response list(String locator) {
+        return given()
+                .spec(spec)
+                .queryParam("locator", locator)
+                .get(BUILD_CONFIG_ENDPOINT);
+    }
+
     @Override
     public Response update(String id, Object obj) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .body(obj)
                 .put(BUILD_CONFIG_ENDPOINT + "/id:" + id);
+        ResponseCache.getResponseCache().invalidate(BUILD_CONFIG_ENDPOINT + "/id:" + id);
+        return response;
     }
 
     @Override
     public Response delete(String id) {
-        return given().spec(spec)
+        var response = given().spec(spec)
                 .delete(BUILD_CONFIG_ENDPOINT + "/id:" + id);
+        ResponseCache.getResponseCache().invalidate(BUILD_CONFIG_ENDPOINT + "/id:" + id);
+        UncheckedProject.invalidateProjects();
+        return response;
     }
 }
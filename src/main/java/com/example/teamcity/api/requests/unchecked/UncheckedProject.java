@@ -1,10 +1,13 @@
 package com.example.teamcity.api.requests.unchecked;
 
+import com.example.teamcity.api.generators.EntityRegistry;
 import com.example.teamcity.api.requests.CrudInterface;
 import io.restassured.response.Response;
 import com.example.teamcity.api.requests.Request;
+import com.example.teamcity.api.requests.ResponseCache;
 
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpStatus;
 
 import static io.restassured.RestAssured.given;
 
@@ -18,31 +21,64 @@ public class UncheckedProject extends Request implements CrudInterface {
 
     @Override
     public Response create(Object obj) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .body(obj)
                 .post(PROJECT_ENDPOINT);
+        EntityRegistry.getRegistry().register(EntityRegistry.Kind.PROJECT, response, "id");
+        invalidateProject(response, "parentProjectId");
+        return response;
     }
 
     @Override
     public Response get(String id) {
         return given()
                 .spec(spec)
+                .filter(ResponseCache.getResponseCache())
                 .get(PROJECT_ENDPOINT + "/id:" + id);
     }
 
+    // One page; see PageIterator for all of them
+    public Response list(String locator) {
+        return given()
+                .spec(spec)
+                .queryParam("locator", locator)
+                .get(PROJECT_ENDPOINT);
+    }
+
     @Override
     public Response update(String id, Object obj) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .body(obj)
                 .put(PROJECT_ENDPOINT + "/id:" + id);
+        ResponseCache.getResponseCache().invalidate(PROJECT_ENDPOINT + "/id:" + id);
+        return response;
     }
 
     @Override
     public Response delete(String id) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .delete(PROJECT_ENDPOINT + "/id:" + id);
+        ResponseCache.getResponseCache().invalidate(PROJECT_ENDPOINT + "/id:" + id);
+        // deleting a project deletes its subprojects and build types too
+        ResponseCache.getResponseCache().invalidateUnvalidated("/app/rest/");
+        return response;
+    }
+
+    // A cached project lists its subprojects and build types, so creating one changes the parent's response
+    static void invalidateProject(Response created, String projectIdPath) {
+        if (created.statusCode() == HttpStatus.SC_OK) {
+            String projectId = created.path(projectIdPath);
+            if (projectId != null) {
+                ResponseCache.getResponseCache().invalidate(PROJECT_ENDPOINT + "/id:" + projectId);
+            }
+        }
+    }
+
+    // For deletes of a build type, whose project is not known without another request
+    static void invalidateProjects() {
+        ResponseCache.getResponseCache().invalidateUnvalidated(PROJECT_ENDPOINT + "/");
     }
 }
@@ -1,5 +1,8 @@
 package com.example.teamcity.api.requests.unchecked;
 
+import com.example.teamcity.api.generators.EntityRegistry;
+import com.example.teamcity.api.metrics.BuildTimings;
+import com.example.teamcity.api.models.BuildCancelRequest;
 import com.example.teamcity.api.requests.CrudInterface;
 import com.example.teamcity.api.requests.Request;
 import io.restassured.response.Response;
@@ -9,6 +12,7 @@ import static io.restassured.RestAssured.given;
 
 public class UncheckedRunBuild extends Request implements CrudInterface {
     private static final String RUN_BUILD_ENDPOINT = "/app/rest/buildQueue";
+    private static final String BUILD_ENDPOINT = "/app/rest/builds";
 
     public UncheckedRunBuild(RequestSpecification spec) {
         super(spec);
@@ -17,10 +21,12 @@ public class UncheckedRunBuild extends Request implements CrudInterface {
 
     @Override
     public Response create(Object obj) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .body(obj)
                 .post(RUN_BUILD_ENDPOINT);
+        EntityRegistry.getRegistry().register(EntityRegistry.Kind.BUILD, response, "id");
+        return response;
     }
 
     @Override
@@ -30,6 +36,30 @@ public class UncheckedRunBuild extends Request implements CrudInterface {
                 .get(RUN_BUILD_ENDPOINT + "/id:" + id);
     }
 
+    // A build in any state; the queue endpoint only knows builds that have not started yet
+    public Response getBuild(String id) {
+        return given()
+                .spec(spec)
+                .get(BUILD_ENDPOINT + "/id:" + id);
+    }
+
+    public Response getBuilds(String locator) {
+        return given()
+                .spec(spec)
+                .queryParam("locator", locator)
+                .get(BUILD_ENDPOINT);
+    }
+
+    // Stops a queued or running build; it stays in the history as canceled
+    public Response cancel(String id) {
+        var response = given()
+                .spec(spec)
+                .body(BuildCancelRequest.builder().comment("Canceled by the test framework").readdIntoQueue(false).build())
+                .post(BUILD_ENDPOINT + "/id:" + id);
+        BuildTimings.getBuildTimings().forget(id);
+        return response;
+    }
+
     @Override
     public Response update(String id, Object obj) {
         return given()
@@ -40,8 +70,11 @@ public class UncheckedRunBuild extends Request implements CrudInterface {
 
     @Override
     public Response delete(String id) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .delete(RUN_BUILD_ENDPOINT + "/id:" + id);
+        // a build that leaves the queue unawaited would keep its BuildTimings entry
+        BuildTimings.getBuildTimings().forget(id);
+        return response;
     }
 }
@@ -1,7 +1,10 @@
 package com.example.teamcity.api.requests.unchecked;
 
+import com.example.teamcity.api.generators.EntityRegistry;
 import com.example.teamcity.api.requests.CrudInterface;
 import com.example.teamcity.api.requests.Request;
+import com.example.teamcity.api.requests.ResponseCache;
+import com.example.teamcity.api.spec.Specifications;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
@@ -17,25 +20,46 @@ public class UncheckedUser extends Request implements CrudInterface {
 
     @Override
     public Response create(Object obj) {
-        return given()
+        var response = given()
                 .spec(spec)
                 .body(obj)
                 .post(USER_ENDPOINT);
+        EntityRegistry.getRegistry().register(EntityRegistry.Kind.USER, response, "username");
+        return response;
     }
 
     @Override
-    public Object get(String id) {
-        return null;
+    public Response get(String id) {
+        return given()
+                .spec(spec)
+                .filter(ResponseCache.getResponseCache())
+                .get(USER_ENDPOINT + "/username:" + id);
+    }
+
+    // One page; see PageIterator for all of them
+    public Response list(String locator) {
+        return given()
+                .spec(spec)
+                .queryParam("locator", locator)
+                .get(USER_ENDPOINT);
     }
 
     @Override
-    public Object update(String id, Object obj) {
-        return null;
+    public Response update(String id, Object obj) {
+        var response = given()
+                .spec(spec)
+                .body(obj)
+                .put(USER_ENDPOINT + "/username:" + id);
+        ResponseCache.getResponseCache().invalidate(USER_ENDPOINT + "/username:" + id);
+        return response;
     }
 
     @Override
     public Response delete(String id) {
-        return given().spec(spec)
+        var response = given().spec(spec)
                 .delete(USER_ENDPOINT + "/username:" + id);
+        Specifications.getSpec().invalidate(id);
+        ResponseCache.getResponseCache().invalidate(USER_ENDPOINT + "/username:" + id);
+        return response;
     }
 }
@@ -0,0 +1,100 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.config.Config;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the last {@code httpLogBufferSize} request/response exchanges of the current thread in memory
+ * instead of printing them. The test layer dumps them only when a test fails.
+ */
+public class BufferedLoggingFilter implements OrderedFilter {
+    private static final int BUFFER_SIZE = Config.getInt("httpLogBufferSize", 50);
+    private static final ThreadLocal<Deque<Exchange>> exchanges = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        var exchange = new Exchange(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getBody());
+        record(exchange);
+        var response = ctx.next(requestSpec, responseSpec);
+        exchange.statusLine = response.getStatusLine();
+        exchange.responseBody = response.asString();
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        // outside GzipRequestFilter and LatencyFilter: bodies are logged uncompressed and copying them is not request time
+        return OrderedFilter.LOWEST_PRECEDENCE - 2;
+    }
+
+    public static void clear() {
+        exchanges.remove();
+    }
+
+    public static String dump() {
+        var buffered = exchanges.get();
+        exchanges.remove();
+        synchronized (buffered) {
+            return buffered.stream()
+                    .map(Exchange::toString)
+                    .collect(Collectors.joining("\n\n"));
+        }
+    }
+
+    // For tasks handed to another thread: their exchanges go into the buffer of the thread that submitted them
+    public static <T> Supplier<T> withCurrentBuffer(Supplier<T> task) {
+        var buffered = exchanges.get();
+        return () -> {
+            var previous = exchanges.get();
+            exchanges.set(buffered);
+            try {
+                return task.get();
+            } finally {
+                exchanges.set(previous);
+            }
+        };
+    }
+
+    private static void record(Exchange exchange) {
+        var buffered = exchanges.get();
+        synchronized (buffered) {
+            if (buffered.size() == BUFFER_SIZE) {
+                buffered.removeFirst();
+            }
+            buffered.addLast(exchange);
+        }
+    }
+
+    private static class Exchange {
+        private final String method;
+        private final String uri;
+        private final Object requestBody;
+        private String statusLine;
+        private String responseBody;
+
+        private Exchange(String method, String uri, Object requestBody) {
+            this.method = method;
+            this.uri = uri;
+            this.requestBody = requestBody;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + uri
+                    + (requestBody != null ? "\n" + requestBody : "")
+                    + "\n--> " + (statusLine != null ? statusLine : "no response")
+                    + (responseBody != null && !responseBody.isEmpty() ? "\n" + responseBody : "");
+        }
+    }
+}
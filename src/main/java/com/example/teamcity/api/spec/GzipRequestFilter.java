@@ -0,0 +1,56 @@
+package com.example.teamcity.api.spec;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips request bodies of at least {@code threshold} bytes and marks them with {@code Content-Encoding: gzip}.
+ * Runs after the logging filter, so logged bodies stay readable.
+ */
+public class GzipRequestFilter implements OrderedFilter {
+    private final int threshold;
+
+    public GzipRequestFilter(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Object body = requestSpec.getBody();
+        byte[] bytes = body instanceof byte[] ? (byte[]) body
+                : body instanceof String ? ((String) body).getBytes(StandardCharsets.UTF_8)
+                : null;
+        if (bytes != null && bytes.length >= threshold) {
+            requestSpec.body(gzip(bytes));
+            requestSpec.header("Content-Encoding", "gzip");
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+
+    @Override
+    public int getOrder() {
+        // between BufferedLoggingFilter and LatencyFilter, so compressing is not counted as request time
+        return OrderedFilter.LOWEST_PRECEDENCE - 1;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        var compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.teamcity.api.spec;
+
+import com.example.teamcity.api.metrics.EndpointLatencies;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the time of every request into {@link EndpointLatencies}. Runs innermost, after any logging filter,
+ * so only the exchange itself is timed.
+ */
+public class LatencyFilter implements OrderedFilter {
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        var response = ctx.next(requestSpec, responseSpec);
+        EndpointLatencies.getEndpointLatencies()
+                .record(requestSpec.getMethod(), requestSpec.getUserDefinedPath(), System.nanoTime() - start);
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        return OrderedFilter.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.teamcity.api.spec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one Jackson mapper for every {@code body(obj)} and {@code extract().as(...)}, built once instead of per call.
+ */
+public class ModelMapper implements io.restassured.mapper.ObjectMapper {
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new BlackbirdModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(MapperFeature.AUTO_DETECT_IS_GETTERS)
+            .build();
+    private static final ModelMapper MODEL_MAPPER = new ModelMapper();
+
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private ModelMapper() {}
+
+    public static ModelMapper getModelMapper() {
+        return MODEL_MAPPER;
+    }
+
+    public static ObjectMapper getMapper() {
+        return MAPPER;
+    }
+
+    public ObjectReader reader(Type type) {
+        return readers.computeIfAbsent(type, t -> MAPPER.readerFor(MAPPER.constructType(t)));
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    @Override
+    public Object serialize(ObjectMapperSerializationContext context) {
+        var object = context.getObjectToSerialize();
+        try {
+            return writer(object.getClass()).writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object deserialize(ObjectMapperDeserializationContext context) {
+        try {
+            return reader(context.getType()).readValue(context.getDataToDeserialize().asByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
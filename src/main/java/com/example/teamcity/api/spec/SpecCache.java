@@ -0,0 +1,53 @@
+package com.example.teamcity.api.spec;
+
+import io.restassured.specification.RequestSpecification;
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of built specs by host and credentials. Specs are shared between threads, so use them only
+ * through {@code given().spec(spec)}.
+ */
+class SpecCache {
+    private final Map<Key, RequestSpecification> specs;
+
+    SpecCache(int maxSize) {
+        this.specs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, RequestSpecification> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    RequestSpecification get(Key key, Supplier<RequestSpecification> builder) {
+        synchronized (specs) {
+            var spec = specs.get(key);
+            if (spec != null) {
+                return spec;
+            }
+        }
+        var built = builder.get();
+        synchronized (specs) {
+            var existing = specs.putIfAbsent(key, built);
+            return existing != null ? existing : built;
+        }
+    }
+
+    void invalidate(String username) {
+        synchronized (specs) {
+            specs.keySet().removeIf(key -> Objects.equals(key.getUsername(), username));
+        }
+    }
+
+    @Value
+    static class Key {
+        String host;
+        String username;
+        String token;
+    }
+}
@@ -3,45 +3,89 @@ package com.example.teamcity.api.spec;
 import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.models.User;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 
+import java.util.function.Supplier;
+
 public class Specifications {
-    public static Specifications spec;
+    private static final BufferedLoggingFilter BUFFERED_LOGGING_FILTER = new BufferedLoggingFilter();
+    private static final LatencyFilter LATENCY_FILTER = new LatencyFilter();
+    private static final Specifications spec = new Specifications();
+    private final SpecCache specCache = new SpecCache(Config.getInt("specCacheSize", 256));
+
     private Specifications() {}
     public static Specifications getSpec() {
-        if (spec == null) {
-            spec = new Specifications();
-        }
         return spec;
     }
     private RequestSpecBuilder reqBuilder() {
         var requestBuilder = new RequestSpecBuilder();
         requestBuilder.setBaseUri("http://" + Config.getProperty("host"));
-        requestBuilder.addFilter(new RequestLoggingFilter());
-        requestBuilder.addFilter(new ResponseLoggingFilter());
+        switch (Config.getProperty("httpLogging", "onFailure")) {
+            case "all":
+                requestBuilder.addFilter(new RequestLoggingFilter());
+                requestBuilder.addFilter(new ResponseLoggingFilter());
+                break;
+            case "onFailure":
+                requestBuilder.addFilter(BUFFERED_LOGGING_FILTER);
+                break;
+        }
+        if (Config.getBoolean("latencyMetrics", true)) {
+            requestBuilder.addFilter(LATENCY_FILTER);
+        }
+        boolean compression = Config.getBoolean("httpCompression", false);
+        if (compression) {
+            requestBuilder.addFilter(new GzipRequestFilter(Config.getInt("gzipRequestThreshold", 8192)));
+        }
         requestBuilder.setContentType(ContentType.JSON);
         requestBuilder.setAccept(ContentType.JSON);
+        var config = RestAssuredConfig.config()
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                        .defaultObjectMapper(ModelMapper.getModelMapper()));
+        if (compression) {
+            config = config.decoderConfig(DecoderConfig.decoderConfig().contentDecoders(DecoderConfig.ContentDecoder.GZIP));
+        }
+        if (ConnectionPool.isEnabled()) {
+            config = config.httpClient(ConnectionPool.getPool().getHttpClientConfig());
+        }
+        requestBuilder.setConfig(config);
         return requestBuilder;
     }
     public RequestSpecification unauthSpec() {
-        var requestBuilder = reqBuilder();
-        requestBuilder.setContentType(ContentType.JSON);
-        requestBuilder.setAccept(ContentType.JSON);
-        return requestBuilder.build();
+        return cached(null, null, () -> {
+            var requestBuilder = reqBuilder();
+            requestBuilder.setContentType(ContentType.JSON);
+            requestBuilder.setAccept(ContentType.JSON);
+            return requestBuilder.build();
+        });
     }
 
     public RequestSpecification authSpec(User user) {
-        var requestBuilder = reqBuilder();
-        requestBuilder.setBaseUri("http://" + user.getUsername() + ":" + user.getPassword() + "@" + Config.getProperty("host"));
-        return requestBuilder.build();
+        return cached(user.getUsername(), user.getPassword(), () -> {
+            var requestBuilder = reqBuilder();
+            requestBuilder.setBaseUri("http://" + user.getUsername() + ":" + user.getPassword() + "@" + Config.getProperty("host"));
+            return requestBuilder.build();
+        });
     }
 
     public RequestSpecification superUserSpec() {
-        var requestBuilder = reqBuilder();
-        requestBuilder.setBaseUri("http://:" + Config.getProperty("superUserToken") + "@" +  Config.getProperty("host"));
-        return requestBuilder.build();
+        return cached("", Config.getProperty("superUserToken"), () -> {
+            var requestBuilder = reqBuilder();
+            requestBuilder.setBaseUri("http://:" + Config.getProperty("superUserToken") + "@" +  Config.getProperty("host"));
+            return requestBuilder.build();
+        });
+    }
+
+    public void invalidate(String username) {
+        specCache.invalidate(username);
+    }
+
+    private RequestSpecification cached(String username, String token, Supplier<RequestSpecification> builder) {
+        return specCache.get(new SpecCache.Key(Config.getProperty("host"), username, token), builder);
     }
 }
@@ -0,0 +1,105 @@
+package com.example.teamcity.api.stub;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TeamCity locator syntax: a single value ({@code _Root}) or {@code dimension:value} pairs with nested locators
+ * ({@code project:(id:Foo),count:10}).
+ */
+class Locator {
+    private final String text;
+    private final String singleValue;
+    private final Map<String, String> dimensions = new LinkedHashMap<>();
+    private final Map<String, List<String>> repeated = new HashMap<>();
+
+    private Locator(String text) {
+        this.text = text;
+        if (text == null || text.isEmpty()) {
+            this.singleValue = null;
+            return;
+        }
+        if (!text.contains(":")) {
+            this.singleValue = text;
+            return;
+        }
+        this.singleValue = null;
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ',';
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                addDimension(text.substring(start, i));
+                start = i + 1;
+            }
+        }
+    }
+
+    static Locator parse(String text) {
+        return new Locator(text);
+    }
+
+    private void addDimension(String pair) {
+        int colon = pair.indexOf(':');
+        if (colon < 0) {
+            throw StubException.badRequest("Bad locator syntax: '" + text + "'. Dimension '" + pair + "' has no value.");
+        }
+        var value = pair.substring(colon + 1);
+        if (value.startsWith("(") && value.endsWith(")")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        var dimension = pair.substring(0, colon);
+        dimensions.putIfAbsent(dimension, value);
+        repeated.computeIfAbsent(dimension, d -> new ArrayList<>()).add(value);
+    }
+
+    String getSingleValue() {
+        return singleValue;
+    }
+
+    String get(String dimension) {
+        return dimensions.get(dimension);
+    }
+
+    // Every value of a dimension that may repeat, e.g. item:(id:1),item:(id:2)
+    List<String> getAll(String dimension) {
+        return repeated.getOrDefault(dimension, List.of());
+    }
+
+    Map<String, String> getDimensions() {
+        return Collections.unmodifiableMap(dimensions);
+    }
+
+    boolean has(String dimension) {
+        return dimensions.containsKey(dimension);
+    }
+
+    int getInt(String dimension, int defaultValue) {
+        var value = dimensions.get(dimension);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw StubException.badRequest("Invalid value of dimension '" + dimension + "': '" + value + "'. Should be a number.");
+        }
+    }
+
+    boolean isEmpty() {
+        return singleValue == null && dimensions.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.teamcity.api.stub;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Test hook on the requests whose path and decoded query contain {@code uriPart}, e.g. one entity's id: counts them
+ * and, after {@link #failWith(int)}, answers them with an error. Stops matching when closed.
+ */
+public class RequestWatch implements AutoCloseable {
+    private final String uriPart;
+    private final Consumer<RequestWatch> onClose;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder conditional = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private volatile int failureStatus;
+
+    RequestWatch(String uriPart, Consumer<RequestWatch> onClose) {
+        this.uriPart = uriPart;
+        this.onClose = onClose;
+    }
+
+    public void failWith(int statusCode) {
+        failureStatus = statusCode;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    // Requests sent with If-None-Match or If-Modified-Since
+    public long getConditionalCount() {
+        return conditional.sum();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    @Override
+    public void close() {
+        onClose.accept(this);
+    }
+
+    boolean matches(String uri) {
+        return uri.contains(uriPart);
+    }
+
+    // Counts the request; returns the status to fail it with, or 0
+    int record() {
+        requests.increment();
+        return failureStatus;
+    }
+
+    void recordConditional() {
+        conditional.increment();
+    }
+
+    void recordNotModified() {
+        notModified.increment();
+    }
+}
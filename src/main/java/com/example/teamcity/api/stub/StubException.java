@@ -0,0 +1,40 @@
+package com.example.teamcity.api.stub;
+
+import lombok.Getter;
+import org.apache.http.HttpStatus;
+
+@Getter
+class StubException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    private StubException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    static StubException badRequest(String message) {
+        return new StubException(HttpStatus.SC_BAD_REQUEST, message);
+    }
+
+    static StubException unauthorized() {
+        return new StubException(HttpStatus.SC_UNAUTHORIZED, "Authentication required\nTo login manually go to \"/login.html\" page");
+    }
+
+    static StubException forbidden(String message) {
+        return new StubException(HttpStatus.SC_FORBIDDEN, message);
+    }
+
+    static StubException notFound(String message) {
+        return new StubException(HttpStatus.SC_NOT_FOUND, message);
+    }
+
+    static StubException withStatus(int statusCode, String message) {
+        return new StubException(statusCode, message);
+    }
+
+    static StubException methodNotAllowed(String message) {
+        return new StubException(HttpStatus.SC_METHOD_NOT_ALLOWED, message);
+    }
+}
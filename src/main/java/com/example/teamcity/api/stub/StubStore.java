@@ -0,0 +1,530 @@
+package com.example.teamcity.api.stub;
+
+import com.example.teamcity.api.enums.ApiErrorMessages;
+import com.example.teamcity.api.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory state of the stub server with the validation and permission rules of the real endpoints.
+ */
+class StubStore {
+    static final String ROOT_PROJECT_ID = "_Root";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z][A-Za-z0-9_]{0,224}");
+    private static final String INVALID_ID_ERROR =
+            "ID should start with a latin letter and contain only latin letters, digits and underscores (at most 225 characters).";
+    private static final Set<Role> VIEW_PROJECT_ROLES = EnumSet.allOf(Role.class);
+    private static final Set<Role> EDIT_PROJECT_ROLES = EnumSet.of(Role.SYSTEM_ADMIN, Role.PROJECT_ADMIN, Role.AGENT_MANAGER);
+    private static final Set<Role> RUN_BUILD_ROLES = EnumSet.of(Role.SYSTEM_ADMIN, Role.PROJECT_ADMIN, Role.PROJECT_DEVELOPER);
+    private static final Set<Role> MANAGE_USERS_ROLES = EnumSet.of(Role.SYSTEM_ADMIN);
+
+    private final String superUserToken;
+    private final Duration buildQueueTime;
+    private final Duration buildRunTime;
+    private final StubUser superUser = new StubUser(0, "", null, null, List.of(new StubRole(Role.SYSTEM_ADMIN.getText(), "g")));
+    private final Map<String, StubProject> projects = new ConcurrentHashMap<>();
+    private final Map<String, StubBuildType> buildTypes = new ConcurrentHashMap<>();
+    private final Map<String, StubUser> users = new ConcurrentHashMap<>();
+    private final Map<Long, StubBuild> builds = new ConcurrentHashMap<>();
+    private final Map<String, StubUser> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong userIds = new AtomicLong();
+    private final AtomicLong buildIds = new AtomicLong(100);
+
+    StubStore(String superUserToken, Duration buildQueueTime, Duration buildRunTime) {
+        this.superUserToken = superUserToken;
+        this.buildQueueTime = buildQueueTime;
+        this.buildRunTime = buildRunTime;
+        projects.put(ROOT_PROJECT_ID, new StubProject(ROOT_PROJECT_ID, "<Root project>", null));
+    }
+
+    // Basic auth wins over the session cookie; a session ends with its user
+    StubUser authenticate(String authorization, String sessionId) {
+        if (authorization != null || sessionId == null) {
+            return authenticate(authorization);
+        }
+        var user = sessions.get(sessionId);
+        if (user == null || (user != superUser && !users.containsKey(user.getUsername().toLowerCase()))) {
+            throw StubException.unauthorized();
+        }
+        return user;
+    }
+
+    String createSession(StubUser user) {
+        var sessionId = UUID.randomUUID().toString().replace("-", "").toUpperCase();
+        sessions.put(sessionId, user);
+        return sessionId;
+    }
+
+    private StubUser authenticate(String authorization) {
+        if (authorization == null || !authorization.startsWith("Basic ")) {
+            throw StubException.unauthorized();
+        }
+        var credentials = new String(Base64.getDecoder().decode(authorization.substring("Basic ".length())), StandardCharsets.UTF_8);
+        int colon = credentials.indexOf(':');
+        var username = colon < 0 ? credentials : credentials.substring(0, colon);
+        var password = colon < 0 ? "" : credentials.substring(colon + 1);
+        if (username.isEmpty() && password.equals(superUserToken)) {
+            return superUser;
+        }
+        var user = users.get(username.toLowerCase());
+        if (user == null || !password.equals(user.getPassword())) {
+            throw StubException.unauthorized();
+        }
+        return user;
+    }
+
+    // ---- projects
+
+    synchronized StubProject createProject(StubUser principal, String name, String id, String parentLocator, boolean parentPresent) {
+        if (name == null || name.isEmpty()) {
+            throw StubException.badRequest(ApiErrorMessages.EMPTY_NAME_ERROR.getErrorMessage());
+        }
+        if (parentPresent && parentLocator == null) {
+            throw StubException.badRequest(ApiErrorMessages.PROJECT_SPECIFIED_ERROR.getErrorMessage());
+        }
+        var parent = parentPresent ? findProjectByNameOrId(parentLocator) : projects.get(ROOT_PROJECT_ID);
+        if (!hasRole(principal, parent.getId(), EDIT_PROJECT_ROLES)) {
+            throw StubException.forbidden("You do not have \"Create subproject\" permission in project with internal id: " + parent.getId());
+        }
+        if (id == null) {
+            id = generateId(parent.getId().equals(ROOT_PROJECT_ID) ? "" : parent.getId() + "_", name);
+        }
+        validateId(id);
+        for (var sibling : projects.values()) {
+            if (parent.getId().equals(sibling.getParentProjectId()) && sibling.getName().equals(name)) {
+                throw StubException.badRequest("Project with this name already exists: " + name);
+            }
+        }
+        if (projects.containsKey(id)) {
+            throw StubException.badRequest("Project ID \"" + id + "\" is already used by another project");
+        }
+        var project = new StubProject(id, name, parent.getId());
+        projects.put(id, project);
+        return project;
+    }
+
+    StubProject getProject(String locatorText) {
+        var locator = Locator.parse(locatorText);
+        var id = locator.getSingleValue() != null ? locator.getSingleValue() : locator.get("id");
+        var project = id != null ? projects.get(id) : findProject(locator);
+        if (project == null) {
+            throw StubException.notFound("No project found by locator 'count:1," + locatorText + "'.");
+        }
+        return project;
+    }
+
+    List<StubProject> listProjects(Locator locator) {
+        return projects.values().stream()
+                .filter(project -> matches(locator, "id", project.getId()))
+                .filter(project -> matches(locator, "name", project.getName()))
+                .filter(project -> !locator.has("parentProject")
+                        || project.getParentProjectId() != null
+                        && project.getParentProjectId().equals(Locator.parse(locator.get("parentProject")).get("id")))
+                .sorted(Comparator.comparing(StubProject::getId))
+                .collect(Collectors.toList());
+    }
+
+    synchronized StubProject updateProject(StubUser principal, String locator, String name) {
+        var project = getProject(locator);
+        requireRole(principal, project.getId(), EDIT_PROJECT_ROLES);
+        if (name != null && !name.isEmpty()) {
+            project.setName(name);
+        }
+        return project;
+    }
+
+    synchronized void deleteProject(StubUser principal, String locator) {
+        var project = getProject(locator);
+        if (project.getId().equals(ROOT_PROJECT_ID)) {
+            throw StubException.badRequest("Root project cannot be deleted");
+        }
+        requireRole(principal, project.getId(), EDIT_PROJECT_ROLES);
+        for (var child : List.copyOf(projects.values())) {
+            if (project.getId().equals(child.getParentProjectId())) {
+                deleteProject(principal, "id:" + child.getId());
+            }
+        }
+        buildTypes.values().removeIf(buildType -> {
+            if (buildType.getProjectId().equals(project.getId())) {
+                builds.values().removeIf(build -> build.getBuildTypeId().equals(buildType.getId()));
+                return true;
+            }
+            return false;
+        });
+        projects.remove(project.getId());
+    }
+
+    private StubProject findProjectByNameOrId(String locatorText) {
+        var locator = Locator.parse(locatorText);
+        StubProject project;
+        if (locator.getSingleValue() != null) {
+            project = projects.get(locator.getSingleValue());
+            if (project == null) {
+                project = projects.values().stream()
+                        .filter(candidate -> candidate.getName().equals(locator.getSingleValue()))
+                        .findFirst().orElse(null);
+            }
+        } else {
+            project = findProject(locator);
+        }
+        if (project == null) {
+            throw StubException.notFound("No project found by name or internal/external id '" + locatorText + "'.");
+        }
+        return project;
+    }
+
+    private StubProject findProject(Locator locator) {
+        return projects.values().stream()
+                .filter(project -> matches(locator, "id", project.getId()))
+                .filter(project -> matches(locator, "name", project.getName()))
+                .findFirst().orElse(null);
+    }
+
+    // ---- build types
+
+    synchronized StubBuildType createBuildType(StubUser principal, String id, String name, String projectId, boolean projectPresent) {
+        if (!projectPresent) {
+            throw StubException.badRequest(ApiErrorMessages.NOT_FOUND_PROJECT_ERROR.getErrorMessage());
+        }
+        if (projectId == null) {
+            throw StubException.badRequest(ApiErrorMessages.PROJECT_SPECIFIED_ERROR.getErrorMessage());
+        }
+        var project = projects.get(projectId);
+        if (project == null) {
+            throw StubException.notFound("Project cannot be found by external id '" + projectId + "'.");
+        }
+        // a project the user cannot even see is reported as a bad reference, not as a permission problem
+        if (!hasRole(principal, projectId, VIEW_PROJECT_ROLES)) {
+            throw StubException.badRequest("Cannot find project by external id '" + projectId + "' or user has no permissions to view it.");
+        }
+        if (!hasRole(principal, projectId, EDIT_PROJECT_ROLES)) {
+            throw StubException.forbidden(ApiErrorMessages.PERMISSION_BUILD_ERROR.getErrorMessage() + projectId);
+        }
+        if (name == null || name.isEmpty()) {
+            throw StubException.badRequest("When creating a build type, non empty name should be provided.");
+        }
+        if (id == null) {
+            id = generateId(projectId + "_", name);
+        }
+        validateId(id);
+        if (buildTypes.containsKey(id)) {
+            throw StubException.badRequest("The build configuration / template ID \"" + id
+                    + "\" is already used by another configuration or template");
+        }
+        var buildType = new StubBuildType(id, name, projectId);
+        buildTypes.put(id, buildType);
+        return buildType;
+    }
+
+    StubBuildType getBuildType(String locatorText) {
+        var locator = Locator.parse(locatorText);
+        var id = locator.getSingleValue() != null ? locator.getSingleValue() : locator.get("id");
+        var buildType = id != null ? buildTypes.get(id) : null;
+        if (buildType == null) {
+            throw StubException.notFound("No build type nor template is found by id '" + id + "'.");
+        }
+        return buildType;
+    }
+
+    List<StubBuildType> listBuildTypes(Locator locator) {
+        return buildTypes.values().stream()
+                .filter(buildType -> matches(locator, "id", buildType.getId()))
+                .filter(buildType -> matches(locator, "name", buildType.getName()))
+                .filter(buildType -> !locator.has("project")
+                        || buildType.getProjectId().equals(Locator.parse(locator.get("project")).get("id")))
+                .sorted(Comparator.comparing(StubBuildType::getId))
+                .collect(Collectors.toList());
+    }
+
+    synchronized StubBuildType updateBuildType(StubUser principal, String locator, String name) {
+        var buildType = getBuildType(locator);
+        requireRole(principal, buildType.getProjectId(), EDIT_PROJECT_ROLES);
+        if (name != null && !name.isEmpty()) {
+            buildType.setName(name);
+        }
+        return buildType;
+    }
+
+    synchronized void deleteBuildType(StubUser principal, String locator) {
+        var buildType = getBuildType(locator);
+        requireRole(principal, buildType.getProjectId(), EDIT_PROJECT_ROLES);
+        builds.values().removeIf(build -> build.getBuildTypeId().equals(buildType.getId()));
+        buildTypes.remove(buildType.getId());
+    }
+
+    // ---- build queue
+
+    StubBuild queueBuild(StubUser principal, String buildTypeId) {
+        if (buildTypeId == null) {
+            throw StubException.badRequest("Build type should be specified: either 'buildType' node or 'buildTypeId' attribute.");
+        }
+        var buildType = getBuildType(buildTypeId);
+        if (!hasRole(principal, buildType.getProjectId(), RUN_BUILD_ROLES)) {
+            throw StubException.forbidden("You do not have enough permissions to run builds in project with id: " + buildType.getProjectId());
+        }
+        var queued = Instant.now();
+        var started = queued.plus(buildQueueTime);
+        var build = new StubBuild(buildIds.incrementAndGet(), buildType.getId(), queued, started, started.plus(buildRunTime), false);
+        builds.put(build.getId(), build);
+        return build;
+    }
+
+    StubBuild getQueuedBuild(String locatorText) {
+        var build = getBuild(locatorText);
+        if (!build.getState().equals("queued")) {
+            throw StubException.notFound("No queued build can be found by locator '" + locatorText + "'.");
+        }
+        return build;
+    }
+
+    StubBuild getBuild(String locatorText) {
+        var locator = Locator.parse(locatorText);
+        var id = locator.getSingleValue() != null ? locator.getSingleValue() : locator.get("id");
+        long buildId = parseBuildId(id);
+        var build = builds.get(buildId);
+        if (build == null) {
+            throw StubException.notFound("No build can be found by id '" + buildId + "'.");
+        }
+        return build;
+    }
+
+    List<StubBuild> listQueuedBuilds(Locator locator) {
+        return builds.values().stream()
+                .filter(build -> build.getState().equals("queued"))
+                .filter(build -> !locator.has("buildType")
+                        || build.getBuildTypeId().equals(Locator.parse(locator.get("buildType")).get("id")))
+                .sorted(Comparator.comparing(StubBuild::getId))
+                .collect(Collectors.toList());
+    }
+
+    List<StubBuild> listBuilds(Locator locator) {
+        if (locator.has("item")) {
+            var items = new ArrayList<StubBuild>();
+            for (var item : locator.getAll("item")) {
+                var build = builds.get(parseBuildId(Locator.parse(item).get("id")));
+                if (build != null) {
+                    items.add(build);
+                }
+            }
+            return items;
+        }
+        var state = locator.has("state") ? locator.get("state") : "finished";
+        return builds.values().stream()
+                .filter(build -> state.equals("any") || build.getState().equals(state))
+                .filter(build -> !locator.has("buildType")
+                        || build.getBuildTypeId().equals(Locator.parse(locator.get("buildType")).get("id")))
+                .sorted(Comparator.comparing(StubBuild::getId).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static long parseBuildId(String id) {
+        try {
+            return Long.parseLong(String.valueOf(id));
+        } catch (NumberFormatException e) {
+            throw StubException.badRequest("Invalid value of dimension 'id': '" + id + "'. Should be a number.");
+        }
+    }
+
+    void cancelQueuedBuild(StubUser principal, String locator) {
+        var build = getQueuedBuild(locator);
+        requireRole(principal, buildTypes.get(build.getBuildTypeId()).getProjectId(), RUN_BUILD_ROLES);
+        builds.remove(build.getId());
+    }
+
+    // A queued or running build finishes now as canceled; a finished one is left as it is
+    synchronized StubBuild cancelBuild(StubUser principal, String locator) {
+        var build = getBuild(locator);
+        requireRole(principal, buildTypes.get(build.getBuildTypeId()).getProjectId(), RUN_BUILD_ROLES);
+        if (!build.getState().equals("finished")) {
+            var now = Instant.now();
+            if (build.getStartDate().isAfter(now)) {
+                build.setStartDate(now);
+            }
+            build.setFinishDate(now);
+            build.setCanceled(true);
+        }
+        return build;
+    }
+
+    // ---- users
+
+    synchronized StubUser createUser(StubUser principal, String username, String password, String email, List<StubRole> roles) {
+        requireRole(principal, ROOT_PROJECT_ID, MANAGE_USERS_ROLES);
+        if (username == null || username.isEmpty()) {
+            throw StubException.badRequest("Username must not be empty when creating user.");
+        }
+        if (users.containsKey(username.toLowerCase())) {
+            throw StubException.badRequest("Duplicate user account with username \"" + username + "\"");
+        }
+        for (var role : roles) {
+            try {
+                Role.valueOf(role.getRoleId());
+            } catch (IllegalArgumentException e) {
+                throw StubException.notFound("No role found by id '" + role.getRoleId() + "'.");
+            }
+        }
+        var user = new StubUser(userIds.incrementAndGet(), username, password, email, List.copyOf(roles));
+        users.put(username.toLowerCase(), user);
+        return user;
+    }
+
+    StubUser getUser(String locatorText) {
+        var locator = Locator.parse(locatorText);
+        StubUser user = null;
+        if (locator.has("id")) {
+            long id = locator.getInt("id", -1);
+            user = users.values().stream().filter(candidate -> candidate.getId() == id).findFirst().orElse(null);
+        } else {
+            var username = locator.getSingleValue() != null ? locator.getSingleValue() : locator.get("username");
+            if (username != null) {
+                user = users.get(username.toLowerCase());
+            }
+        }
+        if (user == null) {
+            throw StubException.notFound("No user can be found by locator '" + locatorText + "'.");
+        }
+        return user;
+    }
+
+    List<StubUser> listUsers(Locator locator) {
+        return users.values().stream()
+                .filter(user -> matches(locator, "username", user.getUsername()))
+                .sorted(Comparator.comparing(StubUser::getId))
+                .collect(Collectors.toList());
+    }
+
+    synchronized StubUser updateUser(StubUser principal, String locator, String password, String email, List<StubRole> roles) {
+        requireRole(principal, ROOT_PROJECT_ID, MANAGE_USERS_ROLES);
+        var user = getUser(locator);
+        if (password != null) {
+            user.setPassword(password);
+        }
+        if (email != null) {
+            user.setEmail(email);
+        }
+        if (roles != null) {
+            user.setRoles(List.copyOf(roles));
+        }
+        return user;
+    }
+
+    synchronized void deleteUser(StubUser principal, String locator) {
+        requireRole(principal, ROOT_PROJECT_ID, MANAGE_USERS_ROLES);
+        var user = getUser(locator);
+        users.remove(user.getUsername().toLowerCase());
+    }
+
+    // ---- helpers
+
+    private boolean hasRole(StubUser principal, String projectId, Set<Role> allowedRoles) {
+        for (var role : principal.getRoles()) {
+            Role roleId;
+            try {
+                roleId = Role.valueOf(role.getRoleId());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (!allowedRoles.contains(roleId)) {
+                continue;
+            }
+            if ("g".equals(role.getScope())) {
+                return true;
+            }
+            for (var current = projects.get(projectId); current != null; current = current.getParentProjectId() == null
+                    ? null : projects.get(current.getParentProjectId())) {
+                if (("p:" + current.getId()).equals(role.getScope())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void requireRole(StubUser principal, String projectId, Set<Role> allowedRoles) {
+        if (!hasRole(principal, projectId, allowedRoles)) {
+            throw StubException.forbidden("You do not have enough permissions to edit project with id: " + projectId);
+        }
+    }
+
+    private static void validateId(String id) {
+        if (!VALID_ID.matcher(id).matches()) {
+            throw StubException.badRequest(INVALID_ID_ERROR);
+        }
+    }
+
+    private static String generateId(String prefix, String name) {
+        var id = (prefix + name).replaceAll("[^A-Za-z0-9_]", "");
+        return id.isEmpty() || !Character.isLetter(id.charAt(0)) ? "Id" + id : id;
+    }
+
+    private static boolean matches(Locator locator, String dimension, String value) {
+        return !locator.has(dimension) || locator.get(dimension).equals(value);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StubProject {
+        private String id;
+        private String name;
+        private String parentProjectId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StubBuildType {
+        private String id;
+        private String name;
+        private String projectId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StubBuild {
+        private long id;
+        private String buildTypeId;
+        private Instant queuedDate;
+        private Instant startDate;
+        private Instant finishDate;
+        private boolean canceled;
+
+        // queued -> running -> finished purely by the clock, so nothing has to drive the lifecycle
+        String getState() {
+            var now = Instant.now();
+            return now.isBefore(startDate) ? "queued" : now.isBefore(finishDate) ? "running" : "finished";
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StubUser {
+        private long id;
+        private String username;
+        private String password;
+        private String email;
+        private List<StubRole> roles;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class StubRole {
+        private String roleId;
+        private String scope;
+    }
+}
@@ -0,0 +1,562 @@
+package com.example.teamcity.api.stub;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.generators.RandomData;
+import com.example.teamcity.api.spec.ModelMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for the part of the TeamCity REST API the request classes use, close enough for the API
+ * suite to pass. {@link #startForConfig()} points the config at it.
+ */
+public class TeamCityStubServer implements AutoCloseable {
+    private static final String REST_ROOT = "/app/rest/";
+    private static final String AUTHENTICATION_TEST = "/authenticationTest.html";
+    private static final String SESSION_COOKIE = "TCSESSIONID";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssZ").withZone(ZoneOffset.UTC);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StubStore store;
+    private final int gzipThreshold;
+    private final List<RequestWatch> watches = new CopyOnWriteArrayList<>();
+
+    private TeamCityStubServer(int port, String superUserToken, int threads) throws IOException {
+        // must be set before the first HttpServer is created, otherwise keep-alive responses wait for delayed ACKs
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        store = new StubStore(superUserToken, Config.getDuration("stubBuildQueueTime", Duration.ofMillis(200)),
+                Config.getDuration("stubBuildRunTime", Duration.ofSeconds(1)));
+        // responses at least this large are gzipped for clients that send Accept-Encoding: gzip
+        gzipThreshold = Config.getInt("stubGzipThreshold", 1024);
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "teamcity-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext(REST_ROOT, this::handle);
+        server.createContext(AUTHENTICATION_TEST, this::handleAuthenticationTest);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static TeamCityStubServer start(int port, String superUserToken) {
+        try {
+            return new TeamCityStubServer(port, superUserToken, Config.getInt("stubServerThreads", 16));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start TeamCity stub server on port " + port, e);
+        }
+    }
+
+    // Starts on stubServerPort (0 = any free port) with a random token and points host and superUserToken at it
+    public static TeamCityStubServer startForConfig() {
+        var superUserToken = RandomData.getString();
+        var server = start(Config.getInt("stubServerPort", 0), superUserToken);
+        Config.override("host", server.getHost());
+        Config.override("superUserToken", superUserToken);
+        return server;
+    }
+
+    public String getHost() {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // See RequestWatch; requests are matched on their path and decoded query, e.g. "item:(id:42)"
+    public RequestWatch watch(String uriPart) {
+        var watch = new RequestWatch(uriPart, watches::remove);
+        watches.add(watch);
+        return watch;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var watched = watching(exchange);
+            int injectedStatus = 0;
+            for (var watch : watched) {
+                injectedStatus = Math.max(injectedStatus, watch.record());
+            }
+            var requestHeaders = exchange.getRequestHeaders();
+            if (requestHeaders.containsKey("If-None-Match") || requestHeaders.containsKey("If-Modified-Since")) {
+                watched.forEach(RequestWatch::recordConditional);
+            }
+            int status;
+            byte[] body;
+            String contentType;
+            try {
+                if (injectedStatus != 0) {
+                    throw StubException.withStatus(injectedStatus, "Failure injected by a RequestWatch.");
+                }
+                var principal = store.authenticate(exchange.getRequestHeaders().getFirst("Authorization"), sessionId(exchange));
+                var requestBody = readBody(exchange);
+                var result = route(principal, exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                        exchange.getRequestURI().getRawQuery(), requestBody);
+                status = result == null ? HttpStatus.SC_NO_CONTENT : HttpStatus.SC_OK;
+                body = result == null ? null : ModelMapper.getMapper().writeValueAsBytes(result);
+                contentType = "application/json";
+            } catch (StubException e) {
+                status = e.getStatusCode();
+                body = errorMessage(e).getBytes(StandardCharsets.UTF_8);
+                contentType = "text/plain";
+            } catch (JsonProcessingException e) {
+                status = HttpStatus.SC_BAD_REQUEST;
+                body = ("Error has occurred during request processing (Bad Request).\nError: " + e.getOriginalMessage())
+                        .getBytes(StandardCharsets.UTF_8);
+                contentType = "text/plain";
+            } catch (RuntimeException e) {
+                status = HttpStatus.SC_INTERNAL_SERVER_ERROR;
+                body = ("Error has occurred during request processing (Internal Server Error).\nError: " + e)
+                        .getBytes(StandardCharsets.UTF_8);
+                contentType = "text/plain";
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType + ";charset=UTF-8");
+            if (status == HttpStatus.SC_OK && exchange.getRequestMethod().equals("GET")) {
+                var etag = etag(body);
+                exchange.getResponseHeaders().set("ETag", etag);
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    status = HttpStatus.SC_NOT_MODIFIED;
+                    body = null;
+                    watched.forEach(RequestWatch::recordNotModified);
+                }
+            }
+            if (body != null && body.length >= gzipThreshold && acceptsGzip(exchange)) {
+                body = gzip(body);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+            } else {
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        }
+    }
+
+    // Answers with a CSRF token; a Basic-authenticated call also starts a session, as the real server does
+    private void handleAuthenticationTest(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int status;
+            byte[] body;
+            try {
+                var authorization = exchange.getRequestHeaders().getFirst("Authorization");
+                var principal = store.authenticate(authorization, sessionId(exchange));
+                if (authorization != null) {
+                    exchange.getResponseHeaders().add("Set-Cookie",
+                            SESSION_COOKIE + "=" + store.createSession(principal) + "; Path=/; HttpOnly");
+                }
+                status = HttpStatus.SC_OK;
+                body = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+            } catch (StubException e) {
+                status = e.getStatusCode();
+                body = errorMessage(e).getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain;charset=UTF-8");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private List<RequestWatch> watching(HttpExchange exchange) {
+        if (watches.isEmpty()) {
+            return List.of();
+        }
+        var uri = exchange.getRequestURI();
+        var decoded = uri.getRawQuery() == null ? uri.getPath()
+                : uri.getPath() + "?" + URLDecoder.decode(uri.getRawQuery(), StandardCharsets.UTF_8);
+        var watched = new ArrayList<RequestWatch>();
+        for (var watch : watches) {
+            if (watch.matches(decoded)) {
+                watched.add(watch);
+            }
+        }
+        return watched;
+    }
+
+    private static String sessionId(HttpExchange exchange) {
+        var cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookies == null) {
+            return null;
+        }
+        for (var cookie : cookies.split(";")) {
+            var nameValue = cookie.trim().split("=", 2);
+            if (nameValue.length == 2 && nameValue[0].equals(SESSION_COOKIE)) {
+                return nameValue[1];
+            }
+        }
+        return null;
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            try (var gzip = new GZIPInputStream(exchange.getRequestBody())) {
+                return gzip.readAllBytes();
+            }
+        }
+        return exchange.getRequestBody().readAllBytes();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        var compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        var acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private static String etag(byte[] body) {
+        var crc = new CRC32();
+        crc.update(body);
+        return "\"" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    private JsonNode route(StubStore.StubUser principal, String method, String path, String query, byte[] requestBody)
+            throws IOException {
+        var relative = path.substring(REST_ROOT.length());
+        int slash = relative.indexOf('/');
+        var resource = slash < 0 ? relative : relative.substring(0, slash);
+        var locator = slash < 0 || slash == relative.length() - 1 ? null : relative.substring(slash + 1);
+        var collectionLocator = Locator.parse(queryParameter(query, "locator"));
+
+        switch (resource) {
+            case "server":
+                return json().put("version", "stub").put("buildNumber", "0");
+            case "projects":
+                if (locator == null) {
+                    switch (method) {
+                        case "GET":
+                            return page("project", "/app/rest/projects", store.listProjects(collectionLocator),
+                                    collectionLocator, this::project);
+                        case "POST":
+                            var body = read(requestBody);
+                            var parent = node(body, "parentProject");
+                            var parentLocator = parent == null ? null
+                                    : text(parent, "locator") != null ? text(parent, "locator")
+                                    : text(parent, "id") != null ? "id:" + text(parent, "id") : null;
+                            return project(store.createProject(principal, text(body, "name"), text(body, "id"),
+                                    parentLocator, parent != null));
+                    }
+                } else {
+                    switch (method) {
+                        case "GET":
+                            return project(store.getProject(locator));
+                        case "PUT":
+                            return project(store.updateProject(principal, locator, text(read(requestBody), "name")));
+                        case "DELETE":
+                            store.deleteProject(principal, locator);
+                            return null;
+                    }
+                }
+                break;
+            case "buildTypes":
+                if (locator == null) {
+                    switch (method) {
+                        case "GET":
+                            return page("buildType", "/app/rest/buildTypes", store.listBuildTypes(collectionLocator),
+                                    collectionLocator, this::buildType);
+                        case "POST":
+                            var body = read(requestBody);
+                            var project = node(body, "project");
+                            var projectId = project == null ? null
+                                    : text(project, "id") != null ? text(project, "id")
+                                    : text(project, "locator") != null ? Locator.parse(text(project, "locator")).get("id") : null;
+                            return buildType(store.createBuildType(principal, text(body, "id"), text(body, "name"),
+                                    projectId, project != null));
+                    }
+                } else {
+                    switch (method) {
+                        case "GET":
+                            return buildType(store.getBuildType(locator));
+                        case "PUT":
+                            return buildType(store.updateBuildType(principal, locator, text(read(requestBody), "name")));
+                        case "DELETE":
+                            store.deleteBuildType(principal, locator);
+                            return null;
+                    }
+                }
+                break;
+            case "buildQueue":
+                if (locator == null) {
+                    switch (method) {
+                        case "GET":
+                            return page("build", "/app/rest/buildQueue", store.listQueuedBuilds(collectionLocator),
+                                    collectionLocator, this::build);
+                        case "POST":
+                            var body = read(requestBody);
+                            var buildTypeId = text(body, "buildTypeId");
+                            if (buildTypeId == null && node(body, "buildType") != null) {
+                                buildTypeId = text(node(body, "buildType"), "id");
+                            }
+                            return build(store.queueBuild(principal, buildTypeId));
+                    }
+                } else {
+                    switch (method) {
+                        case "GET":
+                            return build(store.getQueuedBuild(locator));
+                        case "DELETE":
+                            store.cancelQueuedBuild(principal, locator);
+                            return null;
+                    }
+                }
+                break;
+            case "builds":
+                if (locator == null) {
+                    if (method.equals("GET")) {
+                        return page("build", "/app/rest/builds", store.listBuilds(collectionLocator), collectionLocator, this::build);
+                    }
+                } else {
+                    switch (method) {
+                        case "GET":
+                            return build(store.getBuild(locator));
+                        case "POST":
+                            // a buildCancelRequest; the comment and readdIntoQueue are ignored
+                            return build(store.cancelBuild(principal, locator));
+                    }
+                }
+                break;
+            case "users":
+                if (locator == null) {
+                    switch (method) {
+                        case "GET":
+                            return page("user", "/app/rest/users", store.listUsers(collectionLocator),
+                                    collectionLocator, this::user);
+                        case "POST":
+                            var body = read(requestBody);
+                            return user(store.createUser(principal, text(body, "username"), text(body, "password"),
+                                    text(body, "email"), roles(body)));
+                    }
+                } else {
+                    switch (method) {
+                        case "GET":
+                            return user(store.getUser(locator));
+                        case "PUT":
+                            var body = read(requestBody);
+                            return user(store.updateUser(principal, locator, text(body, "password"), text(body, "email"),
+                                    node(body, "roles") == null ? null : roles(body)));
+                        case "DELETE":
+                            store.deleteUser(principal, locator);
+                            return null;
+                    }
+                }
+                break;
+            default:
+                throw StubException.notFound("Unable to find a REST resource for path '" + path + "'.");
+        }
+        throw StubException.methodNotAllowed("Method " + method + " is not supported for '" + path + "'.");
+    }
+
+    // ---- rendering
+
+    private ObjectNode project(StubStore.StubProject project) {
+        var node = json()
+                .put("id", project.getId())
+                .put("name", project.getName())
+                .put("href", "/app/rest/projects/id:" + project.getId());
+        if (project.getParentProjectId() != null) {
+            node.put("parentProjectId", project.getParentProjectId());
+        }
+        return node;
+    }
+
+    private ObjectNode buildType(StubStore.StubBuildType buildType) {
+        var node = json()
+                .put("id", buildType.getId())
+                .put("name", buildType.getName())
+                .put("projectId", buildType.getProjectId())
+                .put("href", "/app/rest/buildTypes/id:" + buildType.getId());
+        node.set("project", project(store.getProject("id:" + buildType.getProjectId())));
+        node.set("triggers", json().put("count", 0));
+        return node;
+    }
+
+    private ObjectNode build(StubStore.StubBuild build) {
+        var buildType = store.getBuildType("id:" + build.getBuildTypeId());
+        var state = build.getState();
+        var node = json()
+                .put("id", build.getId())
+                .put("buildTypeId", build.getBuildTypeId())
+                .put("state", state)
+                .put("href", (state.equals("queued") ? "/app/rest/buildQueue/id:" : "/app/rest/builds/id:") + build.getId())
+                .put("queuedDate", DATE_FORMAT.format(build.getQueuedDate()));
+        if (!state.equals("queued")) {
+            node.put("status", build.isCanceled() ? "UNKNOWN" : "SUCCESS")
+                    .put("startDate", DATE_FORMAT.format(build.getStartDate()));
+        }
+        if (state.equals("finished")) {
+            node.put("finishDate", DATE_FORMAT.format(build.getFinishDate()));
+        }
+        node.set("buildType", json()
+                .put("id", buildType.getId())
+                .put("name", buildType.getName())
+                .put("projectId", buildType.getProjectId()));
+        return node;
+    }
+
+    private ObjectNode user(StubStore.StubUser user) {
+        var node = json()
+                .put("username", user.getUsername())
+                .put("id", user.getId())
+                .put("href", "/app/rest/users/id:" + user.getId());
+        if (user.getEmail() != null) {
+            node.put("email", user.getEmail());
+        }
+        var roles = node.putObject("roles").putArray("role");
+        for (var role : user.getRoles()) {
+            roles.add(json().put("roleId", role.getRoleId()).put("scope", role.getScope()));
+        }
+        return node;
+    }
+
+    private <T> ObjectNode page(String itemName, String href, List<T> items, Locator locator, Function<T, ObjectNode> render) {
+        int start = Math.min(locator.getInt("start", 0), items.size());
+        int count = locator.getInt("count", DEFAULT_PAGE_SIZE);
+        int end = Math.min(items.size(), start + count);
+        var node = json().put("count", end - start).put("href", href);
+        if (end < items.size()) {
+            node.put("nextHref", href + "?locator=" + withPaging(locator, end, count));
+        }
+        if (start > 0) {
+            node.put("prevHref", href + "?locator=" + withPaging(locator, Math.max(0, start - count), count));
+        }
+        ArrayNode array = node.putArray(itemName);
+        for (var item : items.subList(start, end)) {
+            array.add(render.apply(item));
+        }
+        return node;
+    }
+
+    private static String withPaging(Locator locator, int start, int count) {
+        var dimensions = new ArrayList<String>();
+        for (var dimension : locator.getDimensions().keySet()) {
+            if (!dimension.equals("start") && !dimension.equals("count")) {
+                for (var value : locator.getAll(dimension)) {
+                    dimensions.add(dimension + ":" + (value.contains(":") ? "(" + value + ")" : value));
+                }
+            }
+        }
+        dimensions.add("count:" + count);
+        dimensions.add("start:" + start);
+        return String.join(",", dimensions);
+    }
+
+    // ---- parsing
+
+    private static JsonNode read(byte[] body) throws IOException {
+        return body.length == 0 ? json() : ModelMapper.getMapper().readTree(body);
+    }
+
+    private static JsonNode node(JsonNode parent, String field) {
+        var node = parent.get(field);
+        return node == null || node.isNull() ? null : node;
+    }
+
+    private static String text(JsonNode parent, String field) {
+        var node = node(parent, field);
+        return node == null ? null : node.asText();
+    }
+
+    private static List<StubStore.StubRole> roles(JsonNode body) {
+        var roles = new ArrayList<StubStore.StubRole>();
+        var rolesNode = node(body, "roles");
+        var roleArray = rolesNode == null ? null : node(rolesNode, "role");
+        if (roleArray != null) {
+            for (var role : roleArray) {
+                roles.add(new StubStore.StubRole(text(role, "roleId"), text(role, "scope")));
+            }
+        }
+        return roles;
+    }
+
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (var pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String errorMessage(StubException e) {
+        if (e.getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+            return e.getMessage();
+        }
+        return "Error has occurred during request processing (" + reasonPhrase(e.getStatusCode()) + ").\nError: " + e.getMessage();
+    }
+
+    private static String reasonPhrase(int statusCode) {
+        switch (statusCode) {
+            case HttpStatus.SC_BAD_REQUEST:
+                return "Bad Request";
+            case HttpStatus.SC_FORBIDDEN:
+                return "Forbidden";
+            case HttpStatus.SC_NOT_FOUND:
+                return "Not Found";
+            case HttpStatus.SC_METHOD_NOT_ALLOWED:
+                return "Method Not Allowed";
+            case HttpStatus.SC_INTERNAL_SERVER_ERROR:
+                return "Internal Server Error";
+            case HttpStatus.SC_SERVICE_UNAVAILABLE:
+                return "Service Unavailable";
+            default:
+                return String.valueOf(statusCode);
+        }
+    }
+
+    private static ObjectNode json() {
+        return ModelMapper.getMapper().createObjectNode();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var server = start(Config.getInt("stubServerPort", 8111), Config.getProperty("superUserToken", "stub"));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("TeamCity stub server is listening on " + server.getHost());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.teamcity.ui;
+
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.WebDriverRunner;
+import com.example.teamcity.api.concurrent.BoundedExecutor;
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.metrics.LatencyHistogram;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Up to {@code browserPoolSize} warm remote browser sessions shared by the UI tests. {@link #lease()} binds one to
+ * the current thread and {@link #release()} cleans it and puts it back.
+ */
+public class BrowserPool {
+    private static final BrowserPool browserPool = new BrowserPool(Config.getInt("browserPoolSize", 0),
+            Config.getInt("browserMaxUses", 20), Config.getDuration("browserAcquireTimeout", Duration.ofMinutes(2)));
+
+    private final int size;
+    private final int maxUses;
+    private final Duration acquireTimeout;
+    private final BlockingQueue<Session> idle = new LinkedBlockingQueue<>();
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final ThreadLocal<Session> leased = new ThreadLocal<>();
+    private final BoundedExecutor executor;
+
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+    private final LongAdder reusedLeases = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+
+    // Package-private for tests that need a pool whatever browserPoolSize says
+    BrowserPool(int size, int maxUses, Duration acquireTimeout) {
+        this.size = size;
+        this.maxUses = maxUses;
+        this.acquireTimeout = acquireTimeout;
+        this.executor = new BoundedExecutor("browser-pool", Math.max(size, 1));
+    }
+
+    public static BrowserPool getPool() {
+        return browserPool;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    // Starts every session in the background; call after BrowserSettings.setup
+    public void warmUp() {
+        while (tryReserve()) {
+            createInBackground();
+        }
+    }
+
+    public WebDriver lease() {
+        if (leased.get() != null) {
+            throw new IllegalStateException("The current thread already holds a browser session");
+        }
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeout.toNanos();
+        Session session = idle.poll();
+        while (session == null) {
+            if (tryReserve()) {
+                session = create();
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("No browser session became free within " + acquireTimeout);
+            }
+            try {
+                session = idle.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+        }
+        acquireWait.record(System.nanoTime() - start);
+        if (session.uses > 0) {
+            reusedLeases.increment();
+        }
+        session.uses++;
+        leased.set(session);
+        // replaces the thread's previous driver without quitting it
+        WebDriverRunner.setWebDriver(session.bound);
+        return session.bound;
+    }
+
+    public void release() {
+        var session = leased.get();
+        if (session == null) {
+            return;
+        }
+        leased.remove();
+        // so the thread cannot keep driving a session that another thread leases next; quit() on bound does nothing
+        if (WebDriverRunner.hasWebDriverStarted() && WebDriverRunner.getWebDriver() == session.bound) {
+            WebDriverRunner.closeWebDriver();
+        }
+        if (session.uses < maxUses && reset(session.driver)) {
+            idle.add(session);
+        } else {
+            recycled.increment();
+            quit(session);
+            if (tryReserve()) {
+                createInBackground();
+            }
+        }
+    }
+
+    public void close() {
+        sessions.forEach(this::quit);
+        idle.clear();
+        executor.shutdown();
+    }
+
+    public LatencyHistogram getAcquireWait() {
+        return acquireWait;
+    }
+
+    public double getReuseRatio() {
+        long leases = acquireWait.getCount();
+        return leases == 0 ? 0 : (double) reusedLeases.sum() / leases;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Browser pool: %d leases, %.0f%% on a reused session, %d recycled, acquire wait p50 %d ms, p99 %d ms, max %d ms%n",
+                acquireWait.getCount(), getReuseRatio() * 100, recycled.sum(),
+                acquireWait.getPercentile(50).toMillis(), acquireWait.getPercentile(99).toMillis(),
+                acquireWait.getMax().toMillis());
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = reserved.get();
+            if (current >= size) {
+                return false;
+            }
+        } while (!reserved.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void createInBackground() {
+        executor.run(() -> idle.add(create()));
+    }
+
+    // Called with a reservation held; gives it back if the session cannot be started
+    private Session create() {
+        try {
+            var session = new Session(new RemoteWebDriver(new URL(Configuration.remote), Configuration.browserCapabilities));
+            sessions.add(session);
+            return session;
+        } catch (MalformedURLException | RuntimeException e) {
+            reserved.decrementAndGet();
+            throw new IllegalStateException("Cannot start a browser session on " + Configuration.remote, e);
+        }
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            // cookies can only be deleted for the origin the browser is on
+            if (!driver.getCurrentUrl().startsWith(Configuration.baseUrl)) {
+                driver.navigate().to(Configuration.baseUrl + "/favicon.ico");
+            }
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            driver.navigate().to("about:blank");
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void quit(Session session) {
+        if (sessions.remove(session)) {
+            reserved.decrementAndGet();
+            try {
+                session.driver.quit();
+            } catch (RuntimeException ignored) {
+                // the session is gone either way
+            }
+        }
+    }
+
+    private static class Session {
+        private final WebDriver driver;
+        // What Selenide gets: closeWebDriver() unbinds it from the thread without ending the session
+        private final WebDriver bound;
+        private int uses;
+
+        private Session(WebDriver driver) {
+            this.driver = driver;
+            this.bound = new WebDriverDecorator<>() {
+                @Override
+                public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+                    if (target.getOriginal() == driver && method.getName().equals("quit")) {
+                        return null;
+                    }
+                    return super.call(target, method, args);
+                }
+            }.decorate(driver);
+        }
+    }
+}
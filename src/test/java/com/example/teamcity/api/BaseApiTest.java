@@ -1,5 +1,67 @@
 package com.example.teamcity.api;
 
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.generators.RandomData;
+import com.example.teamcity.api.generators.TestDataPool;
+import com.example.teamcity.api.generators.TestDataSweeper;
+import com.example.teamcity.api.stub.TeamCityStubServer;
+import org.testng.SkipException;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeSuite;
+
 public class BaseApiTest extends BaseTest {
+    private static final Object RESPONSE_CACHE_LOCK = new Object();
+    private static int responseCacheUsers;
+    private static String responseCacheSetting;
+
+    public TestDataPool testDataPool = TestDataPool.getPool();
+
+    @BeforeSuite
+    public void warmUpTestDataPool() {
+        // sweeps what every run left behind, including runs still in progress, so it is off by default
+        if (Config.getBoolean("sweepBeforeSuite", false)) {
+            System.out.println(TestDataSweeper.withSuperUser().sweep(Config.getProperty("sweepPrefix", "test_")));
+        }
+        testDataPool.warmUp();
+    }
+
+    // For tests that count or fail requests on the server, which only the stub can do
+    protected TeamCityStubServer stubServer() {
+        var server = StubServerListener.getServer();
+        if (server == null) {
+            throw new SkipException("Runs only against the stub server (-DstubServer=true)");
+        }
+        return server;
+    }
+
+    // Turns the shared response cache on until closed. Tests running meanwhile use it too; that is harmless on the
+    // stub, which sends ETags, so combine it with stubServer()
+    protected Restore enableResponseCache() {
+        synchronized (RESPONSE_CACHE_LOCK) {
+            if (responseCacheUsers++ == 0) {
+                responseCacheSetting = Config.getProperty("responseCache");
+                Config.override("responseCache", "true");
+            }
+        }
+        return () -> {
+            synchronized (RESPONSE_CACHE_LOCK) {
+                if (--responseCacheUsers == 0) {
+                    Config.override("responseCache", responseCacheSetting);
+                }
+            }
+        };
+    }
+
+    protected interface Restore extends AutoCloseable {
+        @Override
+        void close();
+    }
 
+    @AfterSuite(alwaysRun = true)
+    public void drainTestDataPool() {
+        testDataPool.drain();
+        if (Config.getBoolean("sweepAfterSuite", true)) {
+            System.out.println(TestDataSweeper.withSuperUser().sweep(RandomData.getRunPrefix()));
+        }
+    }
 }
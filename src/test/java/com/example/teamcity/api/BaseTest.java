@@ -1,16 +1,26 @@
 package com.example.teamcity.api;
 
 import com.example.teamcity.api.generators.TestDataStorage;
+import com.example.teamcity.api.metrics.BuildTimings;
+import com.example.teamcity.api.metrics.EndpointLatencies;
+import com.example.teamcity.api.requests.AsyncRequests;
 import com.example.teamcity.api.requests.CheckedRequests;
+import com.example.teamcity.api.requests.ResponseCache;
 import com.example.teamcity.api.requests.UncheckedRequests;
+import com.example.teamcity.api.spec.BufferedLoggingFilter;
 import com.example.teamcity.api.spec.Specifications;
+import io.qameta.allure.Allure;
 import org.assertj.core.api.SoftAssertions;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 
+import java.nio.file.Path;
+
 public class BaseTest {
-    protected SoftAssertions softy;
-    public TestDataStorage testDataStorage;
+    private static final ThreadLocal<SoftAssertions> softy = new ThreadLocal<>();
+    public TestDataStorage testDataStorage = TestDataStorage.getStorage();
 
     public CheckedRequests checkedWithSuperUser
             = new CheckedRequests(Specifications.getSpec().superUserSpec());
@@ -18,17 +28,60 @@ public class BaseTest {
     public UncheckedRequests uncheckedWithSuperUser
             = new UncheckedRequests(Specifications.getSpec().superUserSpec());
 
+    public AsyncRequests asyncWithSuperUser
+            = new AsyncRequests(Specifications.getSpec().superUserSpec());
+
 
     @BeforeMethod
     public void beforeTest() {
-        softy = new SoftAssertions();
-        testDataStorage = TestDataStorage.getStorage();
+        softy.set(new SoftAssertions());
+        BufferedLoggingFilter.clear();
     }
 
     @AfterMethod
-    public void afterTest() {
-        softy.assertAll();
-        testDataStorage.delete();
+    public void afterTest(ITestResult result) {
+        try {
+            var exchanges = BufferedLoggingFilter.dump();
+            if ((!result.isSuccess() || !softy().errorsCollected().isEmpty()) && !exchanges.isEmpty()) {
+                System.out.println(exchanges);
+                Allure.addAttachment("HTTP exchanges", "text/plain", exchanges);
+            }
+            softy().assertAll();
+        } finally {
+            softy.remove();
+            testDataStorage.delete();
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void reportLeakedTestData() {
+        var leaked = TestDataStorage.getLeakedTestData();
+        if (!leaked.isEmpty()) {
+            System.err.println("Test data was not cleaned up for " + leaked.size() + " entries: " + leaked);
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void exportMetrics() {
+        var latencies = EndpointLatencies.getEndpointLatencies();
+        if (!latencies.getEndpoints().isEmpty()) {
+            var csv = latencies.toCsv();
+            latencies.writeCsv(Path.of("target", "latency.csv"));
+            Allure.addAttachment("Endpoint latency", "text/csv", csv, ".csv");
+        }
+        var buildTimings = BuildTimings.getBuildTimings();
+        if (buildTimings.getTimeInQueue().getCount() > 0) {
+            System.out.print(buildTimings);
+            Allure.addAttachment("Build timings", "text/plain", buildTimings.toString());
+        }
+        var responseCache = ResponseCache.getResponseCache();
+        if (responseCache.getMissCount() > 0) {
+            System.out.print(responseCache);
+        }
+    }
+
+    protected SoftAssertions softy() {
+        return softy.get();
     }
 
 }
@@ -16,7 +16,7 @@ public class BuildConfigurationTest extends BaseApiTest {
                 .authSpec(testData.getUser()))
                 .create(testData.getProject());
 
-        softy.assertThat(project.getId()).isEqualTo(testData.getProject().getId());
+        softy().assertThat(project.getId()).isEqualTo(testData.getProject().getId());
     }
 
     @Test
@@ -29,6 +29,6 @@ public class BuildConfigurationTest extends BaseApiTest {
                 .authSpec(testData.getUser()))
                 .create(testData.getProject());
 
-        softy.assertThat(project.getId()).isEqualTo(testData.getProject().getId());
+        softy().assertThat(project.getId()).isEqualTo(testData.getProject().getId());
     }
 }
\ No newline at end of file
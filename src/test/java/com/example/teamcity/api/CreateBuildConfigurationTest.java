@@ -4,6 +4,7 @@ import com.example.teamcity.api.enums.ApiErrorMessages;
 import com.example.teamcity.api.enums.Role;
 import com.example.teamcity.api.generators.RandomData;
 import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.generators.TestDataPool;
 import com.example.teamcity.api.models.BuildType;
 import com.example.teamcity.api.requests.checked.CheckedBuildConfig;
 import com.example.teamcity.api.requests.unchecked.UncheckedBuildConfig;
@@ -25,17 +26,12 @@ public class CreateBuildConfigurationTest extends BaseApiTest {
 
     @Test(dataProvider = "createBuildRoleTestData")
     public void rolesWhoShouldHaveRightsToCreateBuildConfig(Role role) {
-        var testData = testDataStorage.addTestData();
-
-        testData.getUser().setRoles(TestDataGenerator.generateRoles(role, "g"));
-
-        checkedWithSuperUser.getUserRequest().create(testData.getUser());
-        checkedWithSuperUser.getProjectRequest().create(testData.getProject());
+        var testData = testDataPool.lease(role, TestDataPool.Scope.GLOBAL);
 
         var buildConfig = new CheckedBuildConfig(Specifications.getSpec().authSpec(testData.getUser()))
                 .create(testData.getBuildType());
 
-        softy.assertThat(buildConfig.getId()).isEqualTo(testData.getBuildType().getId());
+        softy().assertThat(buildConfig.getId()).isEqualTo(testData.getBuildType().getId());
     }
 
     @Test
@@ -103,8 +99,8 @@ public class CreateBuildConfigurationTest extends BaseApiTest {
                 .then().assertThat().statusCode(HttpStatus.SC_OK)
                 .extract().as(BuildType.class);
 
-        softy.assertThat(updatedBuildConfig.getId()).isEqualTo(createdBuildConfig.getId());
-        softy.assertThat(updatedBuildConfig.getName()).isEqualTo(createdBuildConfig.getName());
+        softy().assertThat(updatedBuildConfig.getId()).isEqualTo(createdBuildConfig.getId());
+        softy().assertThat(updatedBuildConfig.getName()).isEqualTo(createdBuildConfig.getName());
     }
 
     @DataProvider(name = "notCreateBuildRoleTestData")
@@ -6,15 +6,19 @@ import com.example.teamcity.api.generators.RandomData;
 import com.example.teamcity.api.generators.TestDataGenerator;
 import com.example.teamcity.api.models.NewProjectDescription;
 import com.example.teamcity.api.models.Project;
+import com.example.teamcity.api.requests.PageIterator;
 import com.example.teamcity.api.requests.UncheckedRequests;
 import com.example.teamcity.api.requests.checked.CheckedProject;
 import com.example.teamcity.api.requests.unchecked.UncheckedProject;
+import com.example.teamcity.api.spec.BufferedLoggingFilter;
 import com.example.teamcity.api.spec.Specifications;
 import org.apache.http.HttpStatus;
 import org.hamcrest.Matchers;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+
 public class CreateProjectTest extends BaseApiTest {
     @DataProvider(name = "createProjectRoleTestData")
     public Object[][] createProjectRoleTestData() {
@@ -37,7 +41,7 @@ public class CreateProjectTest extends BaseApiTest {
                 .authSpec(testData.getUser()))
                 .create(testData.getProject());
 
-        softy.assertThat(project.getId()).isEqualTo(testData.getProject().getId());
+        softy().assertThat(project.getId()).isEqualTo(testData.getProject().getId());
     }
 
     @Test
@@ -76,8 +80,117 @@ public class CreateProjectTest extends BaseApiTest {
         var updatedProject = checkedWithSuperUser.getProjectRequest()
                 .get(createdProject.getId());
 
-        softy.assertThat(updatedProject.getId()).isEqualTo(createdProject.getId());
-        softy.assertThat(updatedProject.getName()).isEqualTo(createdProject.getName());
+        softy().assertThat(updatedProject.getId()).isEqualTo(createdProject.getId());
+        softy().assertThat(updatedProject.getName()).isEqualTo(createdProject.getName());
+    }
+
+    @Test
+    public void repeatedGetShouldBeServedFromResponseCacheUntilInvalidated() {
+        var server = stubServer();
+        var testData = testDataStorage.addTestData();
+        var createdProject = checkedWithSuperUser.getProjectRequest()
+                .create(testData.getProject());
+        var projectRequest = uncheckedWithSuperUser.getProjectRequest();
+
+        var cache = enableResponseCache();
+        try (var requests = server.watch("/app/rest/projects/id:" + createdProject.getId())) {
+            var first = projectRequest.get(createdProject.getId());
+            var second = projectRequest.get(createdProject.getId());
+
+            softy().assertThat(second.getStatusCode()).isEqualTo(HttpStatus.SC_OK);
+            softy().assertThat(second.asString()).isEqualTo(first.asString());
+            // revalidated: the stub answered 304 and the body came from the cache
+            softy().assertThat(requests.getNotModifiedCount()).isEqualTo(1);
+
+            var newName = RandomData.getString();
+            projectRequest.update(createdProject.getId(), NewProjectDescription.builder().name(newName).build())
+                    .then().assertThat().statusCode(HttpStatus.SC_OK);
+            projectRequest.get(createdProject.getId())
+                    .then().assertThat().statusCode(HttpStatus.SC_OK).body("name", Matchers.equalTo(newName));
+            // the update dropped the entry, so the get went to the server unconditionally
+            softy().assertThat(requests.getConditionalCount()).isEqualTo(1);
+
+            projectRequest.delete(createdProject.getId());
+            projectRequest.get(createdProject.getId())
+                    .then().assertThat().statusCode(HttpStatus.SC_NOT_FOUND);
+            softy().assertThat(requests.getConditionalCount()).isEqualTo(1);
+            softy().assertThat(requests.getRequestCount()).isEqualTo(6);
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void creatingBuildTypeShouldInvalidateCachedParentProject() {
+        var server = stubServer();
+        var testData = testDataStorage.addTestData();
+        var createdProject = checkedWithSuperUser.getProjectRequest()
+                .create(testData.getProject());
+        var projectRequest = uncheckedWithSuperUser.getProjectRequest();
+
+        var cache = enableResponseCache();
+        try (var requests = server.watch("/app/rest/projects/id:" + createdProject.getId())) {
+            projectRequest.get(createdProject.getId());
+            checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+            projectRequest.get(createdProject.getId())
+                    .then().assertThat().statusCode(HttpStatus.SC_OK);
+
+            // the create dropped the cached parent, so neither get was conditional
+            softy().assertThat(requests.getConditionalCount()).isEqualTo(0);
+            softy().assertThat(requests.getRequestCount()).isEqualTo(2);
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void createdProjectsShouldBeListedAcrossPages() {
+        var parentTestData = testDataStorage.addTestData();
+        var parentProject = checkedWithSuperUser.getProjectRequest().create(parentTestData.getProject());
+        var childIds = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            var child = testDataStorage.addTestData().getProject();
+            child.setParentProject(Project.builder().locator(parentProject.getId()).build());
+            childIds.add(checkedWithSuperUser.getProjectRequest().create(child).getId());
+        }
+
+        // scoped to one parent, so projects created by tests running in parallel do not shift the pages
+        var ids = new ArrayList<String>();
+        new PageIterator<>(new UncheckedProject(Specifications.getSpec().superUserSpec())::list,
+                "parentProject:(id:" + parentProject.getId() + ")", "project", Project.class, 2)
+                .forEachRemaining(project -> ids.add(project.getId()));
+
+        softy().assertThat(ids).containsExactlyInAnyOrderElementsOf(childIds);
+    }
+
+    @Test
+    public void exchangesSentFromExecutorThreadsShouldBeBufferedForTheTest() {
+        var testData = testDataStorage.addTestData();
+
+        asyncWithSuperUser.getProjectRequest().get(testData.getProject().getId()).join();
+        new PageIterator<>(new UncheckedProject(Specifications.getSpec().superUserSpec())::list, null,
+                "project", Project.class, 1).hasNext();
+
+        var exchanges = BufferedLoggingFilter.dump();
+        softy().assertThat(exchanges).contains(testData.getProject().getId());
+        softy().assertThat(exchanges).contains("/app/rest/projects?locator=count%3A1");
+    }
+
+    @Test
+    public void projectCreatedWithUncheckedRequestShouldBeDeletedOnTeardown() {
+        var project = NewProjectDescription.builder()
+                .parentProject(Project.builder().locator("_Root").build())
+                .name(RandomData.getString())
+                .id(RandomData.getString())
+                .copyAllAssociatedSettings(true)
+                .build();
+        uncheckedWithSuperUser.getProjectRequest().create(project)
+                .then().assertThat().statusCode(HttpStatus.SC_OK);
+
+        testDataStorage.delete();
+
+        uncheckedWithSuperUser.getProjectRequest().get(project.getId())
+                .then().assertThat().statusCode(HttpStatus.SC_NOT_FOUND);
     }
 
     @Test
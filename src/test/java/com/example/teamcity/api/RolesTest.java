@@ -1,8 +1,11 @@
 package com.example.teamcity.api;
 
 import com.example.teamcity.api.enums.Role;
+import com.example.teamcity.api.generators.TestData;
 import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.generators.TestDataPool;
 import com.example.teamcity.api.requests.UncheckedRequests;
+import com.example.teamcity.api.requests.checked.AuthRequest;
 import com.example.teamcity.api.requests.checked.CheckedBuildConfig;
 import com.example.teamcity.api.requests.checked.CheckedProject;
 import com.example.teamcity.api.requests.unchecked.UncheckedBuildConfig;
@@ -11,10 +14,14 @@ import org.apache.http.HttpStatus;
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
+import java.util.EnumSet;
+
+import static io.restassured.RestAssured.given;
+
 public class RolesTest extends BaseApiTest{
     @Test
     public void unauthorizedUserShouldNotHaveRightToCreateProject() {
-        var testData = testDataStorage.addTestData();
+        var testData = testDataStorage.addTestData(EnumSet.of(TestData.Part.PROJECT));
 
         new UncheckedRequests(Specifications.getSpec().unauthSpec()).getProjectRequest()
                 .create(testData.getProject())
@@ -30,6 +37,19 @@ public class RolesTest extends BaseApiTest{
 
     }
 
+    @Test
+    public void sessionFromApiLoginShouldAuthenticateUser() {
+        var testData = testDataStorage.addTestData();
+        checkedWithSuperUser.getUserRequest().create(testData.getUser());
+
+        var sessionId = new AuthRequest(Specifications.getSpec().authSpec(testData.getUser())).getSessionId();
+
+        given().spec(Specifications.getSpec().unauthSpec())
+                .cookie(AuthRequest.SESSION_COOKIE, sessionId)
+                .get("/app/rest/server")
+                .then().assertThat().statusCode(HttpStatus.SC_OK);
+    }
+
     @Test
     public void systemAdminShouldHaveRightsToCreateProject() {
         var testData = testDataStorage.addTestData();
@@ -43,25 +63,17 @@ public class RolesTest extends BaseApiTest{
                 .authSpec(testData.getUser()))
                 .create(testData.getProject());
 
-        softy.assertThat(project.getId()).isEqualTo(testData.getProject().getId());
+        softy().assertThat(project.getId()).isEqualTo(testData.getProject().getId());
     }
 
     @Test
     public void projectAdminShouldHaveRightsToCreateBuildConfigToHisProject() {
-        var testData = testDataStorage.addTestData();
-
-        checkedWithSuperUser.getProjectRequest()
-                .create(testData.getProject());
-
-        testData.getUser().setRoles(TestDataGenerator.generateRoles(Role.PROJECT_ADMIN, "p:" + testData.getProject().getId()));
-
-        checkedWithSuperUser.getUserRequest()
-                .create(testData.getUser());
+        var testData = testDataPool.lease(Role.PROJECT_ADMIN, TestDataPool.Scope.PROJECT);
 
         var buildConfig = new CheckedBuildConfig(Specifications.getSpec().authSpec(testData.getUser()))
                 .create(testData.getBuildType());
 
-        softy.assertThat(buildConfig.getId()).isEqualTo(testData.getBuildType().getId());
+        softy().assertThat(buildConfig.getId()).isEqualTo(testData.getBuildType().getId());
     }
 
     @Test
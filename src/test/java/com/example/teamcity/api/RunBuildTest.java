@@ -1,34 +1,140 @@
 package com.example.teamcity.api;
 
+import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.enums.Role;
-import com.example.teamcity.api.generators.TestDataGenerator;
+import com.example.teamcity.api.generators.EntityRegistry;
+import com.example.teamcity.api.generators.TestDataPool;
+import com.example.teamcity.api.metrics.BuildTimings;
+import com.example.teamcity.api.requests.BuildTracker;
+import com.example.teamcity.api.requests.CheckedRequests;
 import com.example.teamcity.api.requests.unchecked.UncheckedRunBuild;
 import com.example.teamcity.api.spec.Specifications;
 import org.apache.hc.core5.http.HttpStatus;
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
 import static org.hamcrest.Matchers.equalTo;
 
 public class RunBuildTest extends BaseApiTest {
     @Test
     public void systemAdminShouldBeAbleToRunBuildConfiguration() {
-        var testData = testDataStorage.addTestData();
+        var testData = testDataPool.lease(Role.SYSTEM_ADMIN, TestDataPool.Scope.GLOBAL);
+        var checkedWithSystemAdmin = new CheckedRequests(Specifications.getSpec().authSpec(testData.getUser()));
 
-        checkedWithSuperUser.getProjectRequest().create(testData.getProject());
+        var buildConfig = checkedWithSystemAdmin.getBuildConfigRequest().create(testData.getBuildType());
+
+        var runBuildConfig = checkedWithSystemAdmin.getRunBuildRequest().create(testData.getRunBuild());
+
+        softy().assertThat(buildConfig.getId()).isNotNull();
+        softy().assertThat(runBuildConfig.getId()).isNotNull();
+        softy().assertThat(buildConfig.getProject().getId()).isEqualTo(testData.getProject().getId());
+        softy().assertThat(runBuildConfig.getBuildTypeId()).isEqualTo(testData.getBuildType().getId());
+        softy().assertThat(runBuildConfig.getBuildType().getId()).isEqualTo(testData.getBuildType().getId());
+    }
+
+    @Test
+    public void queuedBuildShouldFinishSuccessfully() {
+        var testData = testDataPool.lease(Role.SYSTEM_ADMIN, TestDataPool.Scope.GLOBAL);
+
+        checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+        var queuedBuild = checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild());
+
+        var finishedBuild = checkedWithSuperUser.getRunBuildRequest().waitUntilFinished(queuedBuild.getId());
 
-        testData.getUser().setRoles(TestDataGenerator.generateRoles(Role.SYSTEM_ADMIN, "g"));
-        checkedWithSuperUser.getUserRequest().create(testData.getUser());
+        softy().assertThat(finishedBuild.getId()).isEqualTo(queuedBuild.getId());
+        softy().assertThat(finishedBuild.getState()).isEqualTo("finished");
+        softy().assertThat(finishedBuild.getStatus()).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    public void manyQueuedBuildsShouldBeTrackedWithBatchedPolling() {
+        var testData = testDataPool.lease(Role.SYSTEM_ADMIN, TestDataPool.Scope.GLOBAL);
 
-        var buildConfig = checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+        checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+        var buildIds = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+            buildIds.add(checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild()).getId());
+        }
+        var interval = Config.getDuration("buildTrackerInterval", Duration.ofMillis(500));
+
+        try (var polls = stubServer().watch("item:(id:" + buildIds.get(buildIds.size() - 1) + ")");
+             var tracker = new BuildTracker(Specifications.getSpec().superUserSpec())) {
+            long start = System.nanoTime();
+            var finished = buildIds.stream().map(tracker::whenFinished).collect(Collectors.toList());
+            CompletableFuture.allOf(finished.toArray(CompletableFuture[]::new)).join();
+            long intervals = Duration.ofNanos(System.nanoTime() - start).dividedBy(interval);
+
+            for (var build : finished) {
+                softy().assertThat(build.join().getState()).isEqualTo("finished");
+            }
+            softy().assertThat(tracker.getPendingCount()).isZero();
+            // one query per interval for all ten builds, not one per build and poll
+            softy().assertThat(polls.getRequestCount()).isBetween(1L, intervals + 1);
+            softy().assertThat(tracker.getRequestCount()).isBetween(polls.getRequestCount(), intervals + 1);
+        }
+    }
+
+    @Test
+    public void trackedBuildShouldTimeOutWhenPollingKeepsFailing() {
+        var testData = testDataPool.lease(Role.SYSTEM_ADMIN, TestDataPool.Scope.GLOBAL);
+
+        checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+        var buildId = checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild()).getId();
+
+        try (var polls = stubServer().watch("item:(id:" + buildId + ")");
+             var tracker = new BuildTracker(Specifications.getSpec().superUserSpec(), Duration.ofSeconds(2))) {
+            polls.failWith(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+
+            var finished = tracker.whenFinished(buildId);
+
+            softy().assertThatThrownBy(finished::join)
+                    .hasCauseInstanceOf(TimeoutException.class)
+                    .hasMessageContaining("500");
+            softy().assertThat(polls.getRequestCount()).isGreaterThan(1);
+            softy().assertThat(tracker.getPendingCount()).isZero();
+        }
+    }
+
+    @Test
+    public void startedBuildShouldBeCanceledByTeardown() {
+        var testData = testDataPool.lease(Role.SYSTEM_ADMIN, TestDataPool.Scope.GLOBAL);
+
+        checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+        var build = checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild());
+        checkedWithSuperUser.getRunBuildRequest().waitUntilStarted(build.getId());
+
+        // the step teardown runs for every registered build before it deletes build types
+        EntityRegistry.Kind.BUILD.delete(Specifications.getSpec().superUserSpec(), build.getId())
+                .then().assertThat().statusCode(HttpStatus.SC_OK);
+
+        var canceledBuild = checkedWithSuperUser.getRunBuildRequest().getBuild(build.getId());
+        softy().assertThat(canceledBuild.getState()).isEqualTo("finished");
+        softy().assertThat(canceledBuild.getStatus()).isEqualTo("UNKNOWN");
+    }
+
+    @Test
+    public void timeInQueueShouldBeRecordedOncePerBuild() {
+        var testData = testDataPool.lease(Role.SYSTEM_ADMIN, TestDataPool.Scope.GLOBAL);
+        var timings = BuildTimings.getBuildTimings();
+
+        checkedWithSuperUser.getBuildConfigRequest().create(testData.getBuildType());
+        var awaited = checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild());
+        var torndown = checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild());
+        softy().assertThat(timings.queuedAt(awaited.getId())).isNotNull();
 
-        var runBuildConfig = checkedWithSuperUser.getRunBuildRequest().create(testData.getRunBuild());
+        checkedWithSuperUser.getRunBuildRequest().waitUntilStarted(awaited.getId());
+        // recorded and dropped, so waiting for the finish below cannot record it a second time
+        softy().assertThat(timings.queuedAt(awaited.getId())).isNull();
+        checkedWithSuperUser.getRunBuildRequest().waitUntilFinished(awaited.getId());
 
-        softy.assertThat(buildConfig.getId()).isNotNull();
-        softy.assertThat(runBuildConfig.getId()).isNotNull();
-        softy.assertThat(buildConfig.getProject().getId()).isEqualTo(testData.getProject().getId());
-        softy.assertThat(runBuildConfig.getBuildTypeId()).isEqualTo(testData.getBuildType().getId());
-        softy.assertThat(runBuildConfig.getBuildType().getId()).isEqualTo(testData.getBuildType().getId());
+        EntityRegistry.Kind.BUILD.delete(Specifications.getSpec().superUserSpec(), torndown.getId());
+        softy().assertThat(timings.queuedAt(torndown.getId())).isNull();
     }
 
     @Test
@@ -0,0 +1,33 @@
+package com.example.teamcity.api;
+
+import com.example.teamcity.api.config.Config;
+import com.example.teamcity.api.stub.TeamCityStubServer;
+import org.testng.IExecutionListener;
+
+/**
+ * Runs the suite against an in-process {@link TeamCityStubServer} instead of a real TeamCity
+ * when started with {@code -DstubServer=true}; otherwise does nothing.
+ */
+public class StubServerListener implements IExecutionListener {
+    private static volatile TeamCityStubServer server;
+
+    @Override
+    public void onExecutionStart() {
+        if (!Config.getBoolean("stubServer", false)) {
+            return;
+        }
+        server = TeamCityStubServer.startForConfig();
+    }
+
+    // null when the suite runs against a real TeamCity
+    public static TeamCityStubServer getServer() {
+        return server;
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
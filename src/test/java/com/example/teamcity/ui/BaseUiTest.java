@@ -1,15 +1,24 @@
 package com.example.teamcity.ui;
 
 import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
 import com.example.teamcity.api.BaseTest;
 import com.example.teamcity.api.config.Config;
 import com.example.teamcity.api.models.User;
+import com.example.teamcity.api.requests.checked.AuthRequest;
 import com.example.teamcity.api.requests.checked.CheckedUser;
 import com.example.teamcity.api.spec.Specifications;
-import com.example.teamcity.ui.pages.LoginPage;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.Cookie;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 
 public class BaseUiTest extends BaseTest {
+    private static final String SESSION_COOKIE_PAGE = "/favicon.ico";
+
     @BeforeSuite
     public void setupUiTest() {
         Configuration.browser = "firefox";
@@ -20,12 +29,40 @@ public class BaseUiTest extends BaseTest {
         Configuration.downloadsFolder ="target/downloads";
 
         BrowserSettings.setup(Config.getProperty("browser"));
+        if (BrowserPool.getPool().isEnabled()) {
+            BrowserPool.getPool().warmUp();
+        }
+    }
+
+    @BeforeMethod
+    public void leaseBrowser() {
+        if (BrowserPool.getPool().isEnabled()) {
+            BrowserPool.getPool().lease();
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseBrowser() {
+        BrowserPool.getPool().release();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void closeBrowserPool() {
+        var browserPool = BrowserPool.getPool();
+        if (browserPool.isEnabled()) {
+            System.out.print(browserPool);
+            Allure.addAttachment("Browser pool", "text/plain", browserPool.toString());
+            browserPool.close();
+        }
     }
 
+    // Logs in over HTTP and hands the session cookie to the browser, which can only take it on a page of the server
     public void loginAsUser(User user) {
         new CheckedUser(Specifications.getSpec().superUserSpec())
                 .create(user);
 
-        new LoginPage().open().login(user);
+        var sessionId = new AuthRequest(Specifications.getSpec().authSpec(user)).getSessionId();
+        Selenide.open(SESSION_COOKIE_PAGE);
+        WebDriverRunner.getWebDriver().manage().addCookie(new Cookie(AuthRequest.SESSION_COOKIE, sessionId, "/"));
     }
 }
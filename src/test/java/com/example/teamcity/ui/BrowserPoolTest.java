@@ -0,0 +1,32 @@
+package com.example.teamcity.ui;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+public class BrowserPoolTest extends BaseUiTest {
+    @Test
+    public void releasedSessionShouldBeUnboundAndReused() {
+        var pool = new BrowserPool(1, 20, Duration.ofMinutes(2));
+        try {
+            var first = pool.lease();
+            softy().assertThat(WebDriverRunner.getWebDriver()).isSameAs(first);
+            Selenide.open("/favicon.ico");
+
+            pool.release();
+            softy().assertThat(WebDriverRunner.hasWebDriverStarted()).isFalse();
+
+            var second = pool.lease();
+            softy().assertThat(second).isSameAs(first);
+            softy().assertThat(WebDriverRunner.getWebDriver()).isSameAs(second);
+            Selenide.open("/favicon.ico");
+            pool.release();
+
+            softy().assertThat(pool.getReuseRatio()).isEqualTo(0.5);
+        } finally {
+            pool.close();
+        }
+    }
+}